@@ -31,6 +31,26 @@ import javafx.scene.control.TextInputDialog; // For the pop-up
 import java.util.Optional; // To handle the result of the pop-up
 import org.example.invaders.rocketblasters.util.GameMode; // To check game mode
 import org.example.invaders.rocketblasters.util.Leaderboard; // To save score
+import org.example.invaders.rocketblasters.render.CanvasRenderer;
+import org.example.invaders.rocketblasters.render.CountingRenderer;
+import org.example.invaders.rocketblasters.render.DirtyRects;
+import org.example.invaders.rocketblasters.render.DrawList;
+import org.example.invaders.rocketblasters.render.EnemySpriteCache;
+import org.example.invaders.rocketblasters.render.FrameStrip;
+import org.example.invaders.rocketblasters.render.ParticleSystem;
+import org.example.invaders.rocketblasters.render.QualityGovernor;
+import org.example.invaders.rocketblasters.render.ResolutionScaler;
+import org.example.invaders.rocketblasters.render.SpriteAtlas;
+import org.example.invaders.rocketblasters.render.StarfieldLayers;
+import org.example.invaders.rocketblasters.sim.GameSim;
+import org.example.invaders.rocketblasters.sim.Input;
+import org.example.invaders.rocketblasters.sim.PerfWindow;
+import org.example.invaders.rocketblasters.sim.PowerUpType;
+import org.example.invaders.rocketblasters.sim.SimEvents;
+import org.example.invaders.rocketblasters.sim.SimLoop;
+import org.example.invaders.rocketblasters.sim.SimSnapshot;
+import org.example.invaders.rocketblasters.sim.StressConfig;
+import org.example.invaders.rocketblasters.util.HudLabel;
 
 public class GameController {
 
@@ -41,101 +61,151 @@ public class GameController {
     @FXML private Label bestLabel;
     @FXML private StackPane centerPane;
 
+    // ===== HUD (Labels are only written when a value changed) =====
+    private HudLabel hudScore, hudLives, hudBest;
+
     // ===== Render/Input =====
-    private GraphicsContext g;
+    private GraphicsContext g;   // entity layer (the FXML canvas, topmost)
     private final Set<KeyCode> keys = new HashSet<>();
     private AnimationTimer loop;
     private boolean running = false;
 
     // ===== Background video =====
     private MediaPlayer bgPlayer;
+    private MediaView bgView;
     private boolean videoOk = false;
-    private boolean needsInitialSpawn = true;// if false, we draw a starfield fallback
 
-    // ===== Player (image ship) =====
-    private double px, py, pvx, pvy;
-    private static final double P_SPEED = 400;
+    // ===== Simulation (headless, on its own thread; this controller only feeds input and renders) =====
+    private static final double FIXED_DT = 1.0 / 60.0;
+    private final boolean stressMode = MainApp.currentGameMode == GameMode.STRESS;
+    private final GameSim sim = stressMode
+            ? new GameSim(System.nanoTime(), StressConfig.fromSystemProperties())
+            : new GameSim();
+    private final SimLoop simLoop = new SimLoop(sim, FIXED_DT);
+    private int shownStatsVersion = -1;
+
+    // ===== Stress mode readout (ticks/s, render ms, entity counts; also printed once a second) =====
+    private final PerfWindow perf = new PerfWindow();
+    private String perfLine = "";
+    private long perfSeenTick = 0, perfSeenWork = 0;
 
+    // ===== Player (image ship) =====
     private Image shipImg;
-    private double shipW = 60, shipH = 80;
+    private double shipW = GameSim.SHIP_W, shipH = GameSim.SHIP_H;
     private double shipHalfW = shipW / 2.0, shipHalfH = shipH / 2.0;
-    private double P_R = Math.min(shipW, shipH) * 0.38;
+    private double P_R = GameSim.P_R;
 
     // ===== Bullets =====
-    private static final double B_R = 4;
-    private static final double B_SPD = 700;
-    private static final double FIRE_CD = 0.15;
-    private double fireCooldown = 0.0;
-    private static class Bullet { double x,y,vy; Bullet(double x,double y,double vy){this.x=x;this.y=y;this.vy=vy;} }
-    private final List<Bullet> bullets = new ArrayList<>();
+    private static final double B_R = GameSim.B_R;
 
     // ===== Enemies (rocket sprites + pulsing glow) ====
-    private final List<double[]> enemies = new ArrayList<>(); // {x,y,vx,vy}
-    private double spawnTimer = 0;
-    private Image enemyImg;                               // sprite used for enemies
+    private FrameStrip enemyFrames;                       // decoded GIF frames, timed by sim time
 
     // draw size for enemy rockets
-    private double enemyW = 48, enemyH = 64;
+    private double enemyW = GameSim.ENEMY_W, enemyH = GameSim.ENEMY_H;
     private double enemyHalfW = enemyW/2.0, enemyHalfH = enemyH/2.0;
-    private double E_R = Math.min(enemyW, enemyH) * 0.25;
+    private double E_R = GameSim.E_R;
 
     // Glow animation phase (seconds)
     private double glowPhase = 0.0;
 
-    // ===== Score/lives/best =====
-    private int score = 0;
-    private int lives = 3;
-    private int best  = 0;
+    // ===== Sprite atlas (ship, power-ups, enemy frames pre-scaled into one image; see buildAtlas) =====
+    private SpriteAtlas atlas;
+    private int shipSprite = -1;
+    private final int[] powerUpSprites = new int[PowerUpType.count()];
+    private int[][] enemyHaloSprites, enemyPlainSprites; // [sprite frame][halo phase]
+
+    // Fixed paints (created once, not per frame)
+    private static final Color VEIL = Color.color(0,0,0, 0.20);
+    private static final Color SHIELD_FILL = Color.color(0.3, 0.5, 1.0, 0.4);
+    private static final Color SHIELD_STROKE = Color.color(0.7, 0.8, 1.0, 0.7);
+    private static final Color STAR_COLOR = Color.web("#a8c7ff");
 
-    // ===== Time =====
+    // ===== Time (render interpolates between published simulation steps) =====
     private long lastNs = 0;
 
     // ===== Fallback starfield state =====
     private final Random rnd = new Random();
-    private static class Star { double x,y,s; }
-    private final List<Star> stars = new ArrayList<>();
     private double starSpeed = 180; // px/sec “forward motion”
+    private final StarfieldLayers starfield = new StarfieldLayers(STAR_COLOR, starSpeed, rnd);
+
+    // ===== Layers (back to front: video, starfield, veil, entities) =====
+    // The veil only changes on resize / video state change; the entity layer clears what it drew last frame.
+    private final Canvas starLayer = new Canvas();
+    private final Canvas veilLayer = new Canvas();
+    private final DirtyRects dirty = new DirtyRects(512);
+    private boolean layersVideoOk = false;
+
+    // ===== Entity draw list (recorded per frame, flushed grouped by layer and paint/image) =====
+    private static final int L_SHIP = 0, L_BULLETS = 1, L_POWER_UPS = 2, L_SHIELD = 3, L_ENEMIES = 4, L_PARTICLES = 5;
+    private final DrawList scene = new DrawList(1024);
+    private CanvasRenderer canvasOut;     // draws onto g and feeds the dirty rects
+    private CountingRenderer drawCounter; // stress mode only: wraps canvasOut
+
+    // Entity + starfield layers render at a reduced pixel size when frames run long;
+    // view.width()/height() is the logical (pane) size everything is drawn and simulated in
+    private ResolutionScaler view;
+
+    // Drops video, halos and star count when frames run long, and brings them back with headroom
+    private final QualityGovernor quality = QualityGovernor.fromSystemProperties();
+    private boolean spriteHalos;
+
+    // Explosions from the sim's event ring (everything after seenEvent is new to us)
+    private final ParticleSystem particles = new ParticleSystem(QualityGovernor.Level.HIGH.particleBudget);
+    private long seenEvent = 0;
 
     @FXML
     public void initialize() {
         g = canvas.getGraphicsContext2D();
-
-        // Bind canvas size to parent pane size
+        hudScore = new HudLabel(scoreLabel, "Score: ");
+        hudLives = new HudLabel(livesLabel, "Lives: ");
+        hudBest = new HudLabel(bestLabel, "Best: ");
+        canvasOut = new CanvasRenderer(g, dirty);
+        if (stressMode) drawCounter = new CountingRenderer(canvasOut);
+
+        // Canvas size follows the parent pane (times the current render scale)
+        view = ResolutionScaler.fromSystemProperties(canvas, starLayer);
         if (centerPane != null) {
-            canvas.widthProperty().bind(centerPane.widthProperty());
-            canvas.heightProperty().bind(centerPane.heightProperty());
+            centerPane.widthProperty().addListener((o,ov,nv) -> onViewResized());
+            centerPane.heightProperty().addListener((o,ov,nv) -> onViewResized());
         } else {
             System.err.println("Center StackPane not injected - Canvas resizing might not work.");
         }
 
+        setupLayers();
         loadShipImage();
         loadEnemyImage();// <--- load enemy rocket sprite
         loadPowerUpImages();
+        buildAtlas();
         setupBackgroundVideo();
+        applyQuality();
         loadBest();
-        updateHud(); // show initial values
+        updateHud(sim.score(), sim.lives(), sim.best()); // show initial values
 
         Platform.runLater(() -> {
             if (canvas.getScene() != null) {
                 canvas.getScene().setOnKeyPressed(e -> {
-                    keys.add(e.getCode());
+                    if (keys.add(e.getCode())) simLoop.setInput(readInput());
                     if (e.getCode() == KeyCode.ESCAPE) onBackToMenu();
                     if (e.getCode() == KeyCode.ENTER)  onRestart();
                 });
-                canvas.getScene().setOnKeyReleased(e -> keys.remove(e.getCode()));
+                canvas.getScene().setOnKeyReleased(e -> {
+                    if (keys.remove(e.getCode())) simLoop.setInput(readInput());
+                });
                 canvas.requestFocus();
                 startSinglePlayer();
             }
         });
+    }
 
-        canvas.widthProperty().addListener((o,ov,nv)->{
-            clampPlayer();
-            if (!videoOk) initStars();
-        });
-        canvas.heightProperty().addListener((o,ov,nv)->{
-            clampPlayer();
-            if (!videoOk) initStars();
-        });
+    private void onViewResized() {
+        view.setLogicalSize(centerPane.getWidth(), centerPane.getHeight());
+        veilLayer.setWidth(view.width()); // a flat fill, no point scaling it
+        veilLayer.setHeight(view.height());
+        particles.resize(view.width(), view.height());
+        syncBounds();
+        redrawStaticLayers();
+        if (!videoOk) initStars();
     }
 
     private void loadShipImage() {
@@ -152,15 +222,94 @@ public class GameController {
     private void loadEnemyImage() {
         // Use your chosen enemy sprite (you can change this path)
         final String enemyPath = "/org/example/invaders/rocketblasters/assets/imgi_127_dahlia-b-ccp2.gif";
-        try {
-            enemyImg = new Image(Objects.requireNonNull(
-                    getClass().getResourceAsStream(enemyPath)));
+        try (InputStream in = Objects.requireNonNull(getClass().getResourceAsStream(enemyPath))) {
+            // the GIF is ~1600 px square; keep enough for the baked 2x frames on a HiDPI screen
+            int max = (int) Math.ceil(Math.max(enemyW, enemyH) * 2 * SpriteAtlas.outputScale());
+            enemyFrames = FrameStrip.decodeGif(in, max, max);
         } catch (Exception ex) {
             System.err.println("Could not load enemy rocket image (" + enemyPath + "); falling back to circle.");
-            enemyImg = null;
+            enemyFrames = null;
         }
     }
 
+    /** Packs every loaded sprite into the atlas at draw size; the source images are dropped after. */
+    private void buildAtlas() {
+        SpriteAtlas.Builder b = new SpriteAtlas.Builder(SpriteAtlas.outputScale());
+        shipSprite = b.add(shipImg, shipW, shipH);
+        for (PowerUpType t : PowerUpType.values()) {
+            Image img = null;
+            switch (t) {
+                case SHIELD:       img = shieldPowerUpImg;     break;
+                case RAPID_FIRE:   img = rapidFirePowerUpImg;  break;
+                case EXTRA_LIFE:   img = extraLifePowerUpImg;  break;
+                case SCORE_BONUS:  img = scoreBonusPowerUpImg; break;
+            }
+            powerUpSprites[t.ordinal()] = b.add(img, powerUpDrawW, powerUpDrawH);
+        }
+        // every animation frame rotated + halo pulse frames (or the circle fallback), with and without halos
+        Image[] enemyImgs = enemyFrames == null ? null : enemyFrames.frames();
+        enemyHaloSprites = addEnemyFrames(b, new EnemySpriteCache(enemyImgs, enemyW, enemyH, E_R, true));
+        enemyPlainSprites = addEnemyFrames(b, new EnemySpriteCache(enemyImgs, enemyW, enemyH, E_R, false));
+        atlas = b.build();
+
+        shipImg = null;
+        shieldPowerUpImg = rapidFirePowerUpImg = extraLifePowerUpImg = scoreBonusPowerUpImg = null;
+    }
+
+    private static int[][] addEnemyFrames(SpriteAtlas.Builder b, EnemySpriteCache cache) {
+        int[][] ids = new int[cache.spriteFrames()][cache.phases()];
+        for (int f = 0; f < ids.length; f++) {
+            for (int p = 0; p < ids[f].length; p++) {
+                ids[f][p] = b.add(cache.image(f, p), cache.width(), cache.height());
+            }
+        }
+        return ids;
+    }
+
+    /** Brings video, enemy halos and star density in line with the current quality level. */
+    private void applyQuality() {
+        QualityGovernor.Level q = quality.level();
+        spriteHalos = q.halos; // both variants are in the atlas
+        particles.setBudget(q.particleBudget);
+        starfield.setDensity(q.starDensity);
+        if (bgPlayer != null && bgView != null) {
+            if (q.video) {
+                bgView.setVisible(true);
+                bgPlayer.play(); // videoOk comes back with onPlaying
+            } else {
+                bgPlayer.pause();
+                bgView.setVisible(false);
+                videoOk = false;
+            }
+        }
+        if (!videoOk) initStars();
+    }
+
+    // === Canvas layers ===
+    private void setupLayers() {
+        starLayer.setMouseTransparent(true);
+        veilLayer.setMouseTransparent(true);
+        if (canvas.getParent() instanceof StackPane sp) {
+            sp.getChildren().add(0, veilLayer); // behind the Canvas
+            sp.getChildren().add(0, starLayer);
+        } else {
+            System.err.println("Canvas parent is not a StackPane; background layers will not show.");
+        }
+        redrawStaticLayers();
+    }
+
+    /** Veil over the background; only needed again after a resize or when the video starts/stops. */
+    private void redrawStaticLayers() {
+        double w = view.width(), h = view.height();
+        GraphicsContext vg = veilLayer.getGraphicsContext2D();
+        vg.clearRect(0, 0, w, h);
+        vg.setFill(VEIL); // subtle veil so foreground pops
+        vg.fillRect(0, 0, w, h);
+        if (videoOk) starLayer.getGraphicsContext2D().clearRect(0, 0, w, h); // let the video show through
+        layersVideoOk = videoOk;
+        dirty.invalidateAll();
+    }
+
     // === Background video (with diagnostics + onReady play) ===
     private void setupBackgroundVideo() {
         final String rel = "/org/example/invaders/rocketblasters/assets/video/space_loop.mp4";
@@ -182,15 +331,17 @@ public class GameController {
 
             bgPlayer.setOnError(() -> System.err.println("[Video] Player error: " + bgPlayer.getError()));
             bgPlayer.setOnReady(() -> {
+                if (!quality.level().video) return; // degraded before the video was ready
                 try { bgPlayer.play(); } catch (MediaException ex) { System.err.println("[Video] play() failed: " + ex); }
             });
-            bgPlayer.setOnPlaying(() -> videoOk = true);
+            bgPlayer.setOnPlaying(() -> videoOk = quality.level().video);
 
             MediaView mv = new MediaView(bgPlayer);
+            bgView = mv;
             mv.setPreserveRatio(true);
             mv.setMouseTransparent(true);
-            mv.fitWidthProperty().bind(canvas.widthProperty());
-            mv.fitHeightProperty().bind(canvas.heightProperty());
+            mv.fitWidthProperty().bind(veilLayer.widthProperty());
+            mv.fitHeightProperty().bind(veilLayer.heightProperty());
 
             if (canvas.getParent() instanceof StackPane sp) {
                 sp.getChildren().add(0, mv); // behind the Canvas
@@ -214,198 +365,94 @@ public class GameController {
         if (running) return;
         resetGame();
 
+        // The FX pulse only draws the newest published step; the sim runs on its own thread.
         loop = new AnimationTimer() {
             @Override public void handle(long now) {
                 if (lastNs == 0) lastNs = now;
                 double dt = (now - lastNs) / 1e9;
                 if (dt > 0.25) dt = 0.25;
                 lastNs = now;
+                if (view.frame(dt)) { // layers were resized
+                    dirty.invalidateAll();
+                    quality.restart();
+                }
+                if (quality.frame(dt)) {
+                    applyQuality();
+                    view.holdOff();
+                }
 
-                tick(dt);
-                render(dt);
+                SimSnapshot s = simLoop.latest();
+                if (s.statsVersion != shownStatsVersion) {
+                    shownStatsVersion = s.statsVersion;
+                    updateHud(s.score, s.lives, s.best);
+                }
+                long renderStart = System.nanoTime();
+                double alpha = (renderStart - s.tickNanos) / (double) simLoop.stepNanos();
+                render(s, dt, Math.max(0, Math.min(1, alpha)));
+                if (stressMode) trackPerf(s, renderStart);
+                if (s.gameOver) gameOver(s);
             }
         };
         running = true;
+        if (stressMode) perfLine = "stress: " + sim.stress(); // shown until the first perf report
+        simLoop.start("SinglePlayer-Sim");
         loop.start();
     }
 
-    private void resetGame() {
-        score = 0; lives = 3;
-        bullets.clear();
-        enemies.clear();
-        powerUps.clear();
-        fireCooldown = 0; spawnTimer = 0; lastNs = 0;
-        powerUpSpawnTimer = 5.0;
-
-        shieldActive = false; shieldTimer = 0; // Reset shield status
-        rapidFireActive = false; rapidFireTimer = 0; // Reset rapid fire status
+    /** Stops drawing and the sim thread; after this the sim may be read directly. */
+    private void stopGame() {
+        if (loop != null) loop.stop();
+        simLoop.stop();
+        running = false;
+    }
 
-        pvx = 0; pvy = 0;
-        needsInitialSpawn = true;
+    private void resetGame() {
+        sim.reset();
+        // The sim thread is stopped here, so set the bounds directly (resizes keep SimLoop's copy current).
+        sim.setBounds(view.width(), view.height());
+        simLoop.setInput(readInput());
+        lastNs = 0;
+        shownStatsVersion = -1;
+        dirty.invalidateAll(); // wipes the previous game over text
+        particles.clear();
 
         if (!videoOk) initStars();
-        updateHud();
     }
 
-    private void tick(double dt) {
-
-        if (needsInitialSpawn) {
-            double w = canvas.getWidth();
-            double h = canvas.getHeight();
-            if (w > 0 && h > 0) { // Ensure canvas has valid dimensions
-                px = w * 0.5;
-                py = h - shipHalfH - 20; // Position near bottom, offset by half height + buffer
-                needsInitialSpawn = false; // Only do this once per game start/reset
-                System.out.println("Initial spawn: Canvas H=" + h + ", py set to " + py); // Debug
-            } else {
-                return; // Wait until canvas has dimensions
-            }
-        }
-
-        // movement (WASD or arrows)
-        pvx = 0; pvy = 0;
-        if (keys.contains(KeyCode.A) || keys.contains(KeyCode.LEFT))  pvx -= P_SPEED;
-        if (keys.contains(KeyCode.D) || keys.contains(KeyCode.RIGHT)) pvx += P_SPEED;
-        if (keys.contains(KeyCode.W) || keys.contains(KeyCode.UP))    pvy -= P_SPEED;
-        if (keys.contains(KeyCode.S) || keys.contains(KeyCode.DOWN))  pvy += P_SPEED;
-
-        boolean shoot = keys.contains(KeyCode.SPACE) || keys.contains(KeyCode.ENTER);
-
-        px += pvx * dt;
-        py += pvy * dt;
-        clampPlayer();
-
-        // bullets
-        fireCooldown = Math.max(0, fireCooldown - dt);
-        if (shoot && fireCooldown == 0.0) {
-            bullets.add(new Bullet(px, py - shipHalfH, -B_SPD)); // from nose
-            fireCooldown = rapidFireActive ? (FIRE_CD * RAPID_FIRE_MULTIPLIER) : FIRE_CD;
-        }
-
-        // bullets vs enemies
-        for (int i = bullets.size()-1; i >= 0; i--) {
-            Bullet b = bullets.get(i);
-            b.y += b.vy * dt;
-            if (b.y < -10) { bullets.remove(i); continue; }
-            for (int j = enemies.size()-1; j >= 0; j--) {
-                double[] e = enemies.get(j); // x,y,vx,vy
-                if (hit(b.x, b.y, B_R, e[0], e[1], E_R)) {
-                    bullets.remove(i);
-                    enemies.remove(j);
-                    score += 10;
-                    if (score > best) best = score;
-                    updateHud();
-                    break;
-                }
-            }
-        }
-
-        // spawn
-        spawnTimer -= dt;
-        if (spawnTimer <= 0) {
-            spawnEnemyRow();
-            spawnTimer = 3.0; // slower waves
-        }
-
-        // --- Power-up Spawning ---
-        powerUpSpawnTimer -= dt;
-        if (powerUpSpawnTimer <= 0) {
-            // Reset timer with some randomness
-            powerUpSpawnTimer = 4.0 + rnd.nextDouble() * 4.0; // Spawn between 4-8 seconds
-
-            // Small chance to spawn a power-up
-            if (rnd.nextDouble() < 0.3) { // 30% chance each time the timer hits
-                spawnRandomPowerUp();
-            }
-        }
-
-        // --- Power-up Movement & Collection ---
-        for (int i = powerUps.size() - 1; i >= 0; i--) {
-            PowerUp p = powerUps.get(i);
-            p.y += p.vy * dt;
-
-            // Remove if off-screen
-            if (p.y > canvas.getHeight() + p.radius * 2) {
-                powerUps.remove(i);
-                continue;
-            }
-
-            // Check collision with player
-            if (hit(px, py, P_R, p.x, p.y, p.radius)) {
-                applyPowerUp(p.type);
-                powerUps.remove(i);
-                // Add sound effect here if you have one
-            }
-        }
-
-        // --- Update Active Power-up Timers ---
-        if (shieldActive) {
-            shieldTimer -= dt;
-            if (shieldTimer <= 0) {
-                shieldActive = false;
-            }
-        }
-        if (rapidFireActive) {
-            rapidFireTimer -= dt;
-            if (rapidFireTimer <= 0) {
-                rapidFireActive = false;
-            }
-        }
-
-        // enemies move & collisions
-        double w = canvas.getWidth(), h = canvas.getHeight();
-        for (int i = enemies.size()-1; i >= 0; i--) {
-            double[] e = enemies.get(i);
-            e[0] += e[2] * dt; e[1] += e[3] * dt;
-
-            if (e[0] < E_R)     { e[0] = E_R;     e[2] = Math.abs(e[2]); }
-            if (e[0] > w - E_R) { e[0] = w - E_R; e[2] = -Math.abs(e[2]); }
-
-            //previous collision check:
-            /*
-            if (e[1] > h - 40 || hit(px, py, P_R, e[0], e[1], E_R)) {
-                enemies.remove(i);
-                lives--; // <-- THIS LINE
-                updateHud();
-                if (lives <= 0) { gameOver(); return; }
-            }
-            */
-            // With this check for the shield:
-
-            if (e[1] > h - 40 || hit(px, py, P_R, e[0], e[1], E_R)) {
-                enemies.remove(i);
-                if (!shieldActive) { // Only lose a life if shield is NOT active
-                    lives--;
-                    updateHud();
-                    if (lives <= 0) { gameOver(); return; }
-                } else {
-                    // Shield absorbed the hit - optionally deactivate shield immediately or play a sound
-                    shieldActive = false; // Example: Shield breaks on hit
-                    shieldTimer = 0;
-                    // Maybe play shield impact sound
-                }
-            }
-        }
+    /** Maps the currently held keys to a simulation input frame. */
+    private int readInput() {
+        int in = Input.NONE;
+        if (keys.contains(KeyCode.A) || keys.contains(KeyCode.LEFT))  in |= Input.LEFT;
+        if (keys.contains(KeyCode.D) || keys.contains(KeyCode.RIGHT)) in |= Input.RIGHT;
+        if (keys.contains(KeyCode.W) || keys.contains(KeyCode.UP))    in |= Input.UP;
+        if (keys.contains(KeyCode.S) || keys.contains(KeyCode.DOWN))  in |= Input.DOWN;
+        if (keys.contains(KeyCode.SPACE) || keys.contains(KeyCode.ENTER)) in |= Input.FIRE;
+        return in;
     }
 
-    private void render(double dt) {
-        clampPlayer();
-        double w = canvas.getWidth(), h = canvas.getHeight();
-
-        // Fallback background
+    /**
+     * Draws a published step, interpolated between its start and end positions.
+     * @param s     snapshot from the sim thread
+     * @param dt    real frame time (drives purely visual effects)
+     * @param alpha how far we are into the next step, 0..1
+     */
+    private void render(SimSnapshot s, double dt, double alpha) {
+        double w = view.width(), h = view.height();
+        double px = lerp(s.playerX0, s.playerX, alpha);
+        double py = lerp(s.playerY0, s.playerY, alpha);
+
+        // Background layers: the starfield scrolls, the veil is static
+        if (videoOk != layersVideoOk) redrawStaticLayers();
         if (!videoOk) drawStarfield(dt, w, h);
 
-        // subtle veil so foreground pops
-        g.setFill(Color.color(0,0,0, 0.20));
-        g.fillRect(0,0,w,h);
-
         // Advance glow phase for pulsing (≈1.5 pulses per second)
         glowPhase += dt;
         final double pulse = 0.5 + 0.5 * Math.sin(glowPhase * Math.PI * 3.0); // range 0..1
 
         // player ship (fallback to circle if image missing)
-        if (shipImg != null) {
-            double currentCanvasHeight = canvas.getHeight(); // Get height right before drawing
+        scene.layer(L_SHIP);
+        if (shipSprite >= 0) {
+            double currentCanvasHeight = h; // Get height right before drawing
             // Calculate the maximum allowed Y for the ship's center to keep it fully visible
             double maxY = currentCanvasHeight - shipHalfH;
             // Ensure the drawing Y position doesn't exceed this limit
@@ -414,219 +461,170 @@ public class GameController {
             drawY = Math.max(shipHalfH, drawY);
 
             // *** Use drawY for drawing, instead of py directly ***
-            g.drawImage(shipImg, px - shipHalfW, drawY - shipHalfH, shipW, shipH);
+            atlas.draw(scene, shipSprite, px - shipHalfW, drawY - shipHalfH);
 
             // Optional Debug Print (uncomment to check values):
             // if (py > maxY) {
             //     System.out.printf("RENDER CLAMP: py=%.1f > maxY=%.1f. Drawing at %.1f (CanvasH=%.1f)\n", py, maxY, drawY, currentCanvasHeight);
             } else {
             // Fallback drawing (circle) - Apply similar clamping if needed
-            double currentCanvasHeight = canvas.getHeight();
+            double currentCanvasHeight = h;
             double maxY = currentCanvasHeight - P_R;
             double drawY = Math.min(py, maxY);
             drawY = Math.max(P_R, drawY); // Use P_R for radius clamping here
 
-            g.setFill(Color.LIMEGREEN);
-            g.fillOval(px - P_R, drawY - P_R, P_R*2, P_R*2);
+            scene.fillOval(Color.LIMEGREEN, px - P_R, drawY - P_R, P_R*2, P_R*2);
         }
 
         // bullets
-        g.setFill(Color.WHITE);
-        for (Bullet b: bullets) g.fillOval(b.x - B_R, b.y - B_R, B_R*2, B_R*2);
+        scene.layer(L_BULLETS);
+        SimSnapshot.Entities bullets = s.bullets;
+        for (int i = 0; i < bullets.size; i++) {
+            double bx = lerp(bullets.x0[i], bullets.x[i], alpha), by = lerp(bullets.y0[i], bullets.y[i], alpha);
+            scene.fillOval(Color.WHITE, bx - B_R, by - B_R, B_R*2, B_R*2);
+        }
 
         // --- Render Power-ups ---
-        for (PowerUp p : powerUps) {
-            Image imgToDraw = null;
-            switch (p.type) {
-                case SHIELD:       imgToDraw = shieldPowerUpImg;       break;
-                case RAPID_FIRE:   imgToDraw = rapidFirePowerUpImg;   break;
-                case EXTRA_LIFE:   imgToDraw = extraLifePowerUpImg;   break;
-                case SCORE_BONUS:  imgToDraw = scoreBonusPowerUpImg;  break;
-            }
-
-            if (imgToDraw != null) {
+        scene.layer(L_POWER_UPS);
+        SimSnapshot.Entities powerUps = s.powerUps;
+        for (int i = 0; i < powerUps.size; i++) {
+            double pux = lerp(powerUps.x0[i], powerUps.x[i], alpha);
+            double puy = lerp(powerUps.y0[i], powerUps.y[i], alpha);
+            double pur = GameSim.POWER_UP_R;
+            PowerUpType type = PowerUpType.of(powerUps.kind[i]);
+            int sprite = powerUpSprites[type.ordinal()];
+
+            if (sprite >= 0) {
                 // Draw the image centered at the power-up's position
-                g.drawImage(imgToDraw, p.x - powerUpHalfW, p.y - powerUpHalfH, powerUpDrawW, powerUpDrawH);
+                atlas.draw(scene, sprite, pux - powerUpHalfW, puy - powerUpHalfH);
             } else {
                 // Fallback: Draw colored circles if image loading failed
-                switch (p.type) {
-                    case SHIELD:       g.setFill(Color.CYAN);       break;
-                    case RAPID_FIRE:   g.setFill(Color.ORANGERED); break;
-                    case EXTRA_LIFE:   g.setFill(Color.LIMEGREEN); break;
-                    case SCORE_BONUS:  g.setFill(Color.GOLD);       break;
-                    default:           g.setFill(Color.MAGENTA);   break;
+                Color fill;
+                switch (type) {
+                    case SHIELD:       fill = Color.CYAN;      break;
+                    case RAPID_FIRE:   fill = Color.ORANGERED; break;
+                    case EXTRA_LIFE:   fill = Color.LIMEGREEN; break;
+                    case SCORE_BONUS:  fill = Color.GOLD;      break;
+                    default:           fill = Color.MAGENTA;   break;
                 }
-                g.fillOval(p.x - p.radius, p.y - p.radius, p.radius * 2, p.radius * 2);
+                scene.fillOval(fill, pux - pur, puy - pur, pur * 2, pur * 2);
             }
         }
 
         // --- Render Shield Effect ---
-        if (shieldActive) {
+        if (s.shieldActive) {
             double shieldRadius = P_R * 1.5; // Make shield visual slightly larger than collision radius
+            scene.layer(L_SHIELD);
             // Draw a semi-transparent blue circle around the player
-            g.setFill(Color.color(0.3, 0.5, 1.0, 0.4)); // Light blue, semi-transparent
-            g.fillOval(px - shieldRadius, py - shieldRadius, shieldRadius * 2, shieldRadius * 2);
+            scene.fillOval(SHIELD_FILL, px - shieldRadius, py - shieldRadius, shieldRadius * 2, shieldRadius * 2);
             // Optionally add a border
-            g.setStroke(Color.color(0.7, 0.8, 1.0, 0.7));
-            g.setLineWidth(2);
-            g.strokeOval(px - shieldRadius, py - shieldRadius, shieldRadius * 2, shieldRadius * 2);
-            g.setLineWidth(1); // Reset line width
+            scene.strokeOval(SHIELD_STROKE, 2, px - shieldRadius, py - shieldRadius, shieldRadius * 2, shieldRadius * 2);
+        }
+
+        // enemies as downward rockets (or the circle fallback) with pulsing red glow:
+        // one pre-rendered atlas sprite per enemy; animation frame (from sim time) and pulse phase
+        // are shared by all enemies this frame
+        scene.layer(L_ENEMIES);
+        SimSnapshot.Entities enemies = s.enemies;
+        int animFrame = enemyFrames == null ? 0 : enemyFrames.indexAt(s.tick * FIXED_DT);
+        int[] phases = (spriteHalos ? enemyHaloSprites : enemyPlainSprites)[animFrame];
+        int enemySprite = phases[EnemySpriteCache.phaseIndex(pulse, phases.length)];
+        for (int i = 0; i < enemies.size; i++) {
+            double ex = lerp(enemies.x0[i], enemies.x[i], alpha);
+            double ey = lerp(enemies.y0[i], enemies.y[i], alpha);
+            atlas.drawCentered(scene, enemySprite, ex, ey);
         }
 
-        // enemies as rockets (rotate to face downward) with pulsing red glow
-        if (enemyImg != null) {
-            for (double[] e: enemies) {
-                double ex = e[0], ey = e[1];
-
-                // --- Red pulsing halo behind the enemy ---
-                // Tweakable: base/amp radius and alpha
-                double baseR = Math.max(enemyW, enemyH) * 0.10;   // base halo radius
-                double ampR  = Math.max(enemyW, enemyH) * 0.20;   // pulse amplitude
-                double haloR = baseR + ampR * pulse;               // current halo radius
-                double alpha = 0.12 + 0.18 * pulse;                // transparency 0.22..0.40
-
-                g.setFill(Color.color(1.0, 0.2, 0.2, alpha));      // soft red
-                g.fillOval(ex - haloR, ey - haloR, haloR*2, haloR*2);
-
-                // Draw centered, rotated 180° to look like incoming rocket
-                g.save();
-                g.translate(ex, ey);
-                g.rotate(180); // pointing downwards
-                g.drawImage(enemyImg, -enemyHalfW, -enemyHalfH, enemyW, enemyH);
-                g.restore();
+        // explosions for kills/crashes since the last frame we drew (snapshots may have been skipped)
+        SimEvents events = s.events;
+        for (long e = Math.max(seenEvent, events.oldest()); e < events.next(); e++) {
+            if (events.kind(e) == SimEvents.ENEMY_KILLED) {
+                particles.burst(events.x(e), events.y(e), 24, 240, 0.7, 0xFF8020);
+            } else {
+                particles.burst(events.x(e), events.y(e), 16, 160, 0.5, 0xFF2010);
             }
+        }
+        seenEvent = events.next();
+        particles.update(dt);
+        scene.layer(L_PARTICLES);
+        particles.render(scene);
+
+        dirty.clear(g, w, h);
+        if (drawCounter != null) {
+            drawCounter.reset();
+            scene.flush(drawCounter);
         } else {
-            // Fallback: red circles with pulsing halo
-            for (double[] e: enemies) {
-                double ex = e[0], ey = e[1];
-                double baseR = E_R * 2.0, ampR = E_R * 0.8;
-                double haloR = baseR + ampR * pulse;
-                double alpha = 0.22 + 0.18 * pulse;
-
-                g.setFill(Color.color(1.0, 0.2, 0.2, alpha));
-                g.fillOval(ex - haloR, ey - haloR, haloR*2, haloR*2);
-
-                g.setFill(Color.CRIMSON);
-                g.fillOval(ex - E_R, ey - E_R, E_R*2, E_R*2);
-            }
+            scene.flush(canvasOut);
         }
     }
 
-    // --- Starfield fallback (simple + cheap) ---
+    // --- Starfield fallback (pre-baked parallax layers, re-baked only on resize) ---
     private void initStars() {
-        stars.clear();
-        int count = (int) Math.max(200, (canvas.getWidth() * canvas.getHeight()) / 7000);
-        for (int i = 0; i < count; i++) {
-            Star s = new Star();
-            s.x = rnd.nextDouble() * Math.max(1, canvas.getWidth());
-            s.y = rnd.nextDouble() * Math.max(1, canvas.getHeight());
-            s.s = 0.5 + rnd.nextDouble() * 2.0; // size
-            stars.add(s);
-        }
+        starfield.resize(view.width(), view.height());
     }
 
     private void drawStarfield(double dt, double w, double h) {
-        g.setFill(Color.BLACK);
-        g.fillRect(0,0,w,h);
-
-        g.setFill(Color.web("#a8c7ff"));
-        for (Star s : stars) {
-            s.y += starSpeed * dt * (0.6 + 0.4 * s.s); // parallax-ish
-            if (s.y > h + 10) {
-                s.y = -10;
-                s.x = rnd.nextDouble() * w;
-            }
-            double r = s.s;
-            g.fillOval(s.x - r, s.y - r, r*2, r*2);
-        }
+        starfield.draw(starLayer.getGraphicsContext2D(), dt, w, h);
     }
 
-    private void spawnEnemyRow() {
-        double w = canvas.getWidth();
-        Random rnd = new Random();
-        int n = 5 + rnd.nextInt(3);
-        for (int i = 0; i < n; i++) {
-            double x = 40 + i * ((w - 80) / Math.max(1,n-1));
-            double y = -20 - rnd.nextInt(100);
-            double vx = (rnd.nextBoolean() ? 1 : -1) * (40 + rnd.nextInt(40)); // slower horizontal wiggle
-            double vy = 25 + rnd.nextInt(30);                                  // downward speed
-            enemies.add(new double[]{x, y, vx, vy});
+    /** Stress mode: feeds this frame into the perf window and draws the last report. */
+    private void trackPerf(SimSnapshot s, long renderStart) {
+        long now = System.nanoTime();
+        perf.addFrame(now - renderStart);
+        if (s.tick < perfSeenTick) perfSeenTick = 0; // restarted
+        perf.addTicks(s.tick - perfSeenTick, s.workNanosTotal - perfSeenWork, s.stepWorkNanos);
+        perfSeenTick = s.tick;
+        perfSeenWork = s.workNanosTotal;
+
+        if (perf.elapsedNanos(now) >= 1_000_000_000L) {
+            perfLine = perf.report(now, s.enemies.size, s.bullets.size, s.powerUps.size)
+                    + " " + drawCounter.summary()
+                    + String.format(" scale=%.2f q=%s", view.scale(), quality.level());
+            System.out.println("[Stress] " + perfLine);
         }
+        canvasOut.fillText(Color.WHITE, perfLine, 12, 20);
     }
 
-    private static boolean hit(double x1,double y1,double r1,double x2,double y2,double r2){
-        double dx=x1-x2, dy=y1-y2, rr=r1+r2; return dx*dx+dy*dy <= rr*rr;
+    private static double lerp(double a, double b, double t) {
+        return a + (b - a) * t;
     }
 
-    // Inside GameController.javas
-    private void clampPlayer() {
-        double w = canvas.getWidth();  // Current canvas width
-        double h = canvas.getHeight(); // Current canvas height
-
-        // Check if dimensions are valid (avoid dividing by zero or clamping in tiny space)
-        if (w <= shipW || h <= shipH) {
-            // Optional: Print a warning if canvas size is problematic
-            // System.out.println("WARN: Canvas size too small for clamping (" + w + "x" + h + ")");
-            return;
-        }
-
-        // --- Clamping Logic ---
-        // Clamp Left boundary
-        px = Math.max(shipHalfW, Math.min(w - shipHalfW, px));
-        // Clamp Right boundary
-        py = Math.max(shipHalfH, Math.min(h - shipHalfH, py));
-
-        double bottomLimit = h - shipHalfH;
-        if (py > bottomLimit) {
-            System.out.println("CORRECTING: py (" + py + ") exceeded bottomLimit (" + bottomLimit + ")"); // Debug
-            py = bottomLimit;
-        }
-
-        // Clamp Top boundary
-        //py = Math.max(shipHalfH, py);
-        // Clamp Bottom boundary
-        //py = Math.min(h - shipHalfH, py); // Prevent ship center going below h - half height
-
-        // --- Debugging ---
-        // Uncomment the line below temporarily if needed to see values:
-        // System.out.printf("Canvas H: %.1f, Ship py: %.1f, Clamped py: %.1f, Max py allowed: %.1f\n", h, pyBeforeClamp, py, h - shipHalfH);
-        // Note: To use pyBeforeClamp, you'd need to store the py value before clamping.
-        // Simpler check: Print py after clamping
-        // System.out.printf("Clamped py: %.1f (Max allowed: %.1f)\n", py, h - shipHalfH);
+    /** Keeps the simulation playfield in sync with the (resizable) canvas. */
+    private void syncBounds() {
+        simLoop.setBounds(view.width(), view.height());
     }
 
-    private void gameOver() {
-        System.out.println("DEBUG: gameOver() method called. Score: " + score + ", Lives: " + lives);
-        if (loop != null) loop.stop();
-        running = false;
+    private void gameOver(SimSnapshot s) {
+        System.out.println("DEBUG: gameOver() method called. Score: " + s.score + ", Lives: " + s.lives);
+        stopGame();
         handleEndOfGameScore();
-        updateHud();
-        g.setFill(Color.WHITE);
-        g.fillText("Game Over! Score: " + score,
-                Math.max(20, canvas.getWidth()*0.5 - 80),
-                Math.max(20, canvas.getHeight()*0.5));
+        updateHud(s.score, s.lives, s.best);
+        canvasOut.fillText(Color.WHITE, "Game Over! Score: " + s.score,
+                Math.max(20, view.width()*0.5 - 80),
+                Math.max(20, view.height()*0.5));
     }
 
     // ===== HUD =====
-    private void updateHud() {
-        if (scoreLabel != null) scoreLabel.setText("Score: " + score);
-        if (livesLabel != null) livesLabel.setText("Lives: " + lives);
-        if (bestLabel  != null) bestLabel.setText("Best: " + best);
+    private void updateHud(int score, int lives, int best) {
+        hudScore.set(score);
+        hudLives.set(lives);
+        hudBest.set(best);
+        hudScore.flush();
+        hudLives.flush();
+        hudBest.flush();
     }
 
     // ===== UI actions =====
     @FXML
     private void onRestart() {
-        if (loop != null) loop.stop();
-        running = false;
+        stopGame();
         saveBest();
         startSinglePlayer();
     }
 
     @FXML
     private void onBackToMenu() {
-        if (loop != null) loop.stop();
-        running = false;
+        stopGame();
         saveBest();
         stopBackgroundVideo(); // important so media player is disposed
         MainApp.setRoot("/org/example/invaders/rocketblasters/Menu.fxml");
@@ -634,17 +632,19 @@ public class GameController {
 
     // ===== Best score local file =====
     private void loadBest() {
+        if (stressMode) return; // stress scores are not real games
         File f = new File("bestscore.txt");
         if (f.exists()) {
             try (BufferedReader br = new BufferedReader(new FileReader(f))) {
-                best = Integer.parseInt(br.readLine().trim());
+                sim.setBest(Integer.parseInt(br.readLine().trim()));
             } catch (Exception ignored) {}
         }
     }
 
     private void saveBest() {
+        if (stressMode) return;
         try (PrintWriter pw = new PrintWriter(new FileWriter("bestscore.txt"))) {
-            pw.println(best);
+            pw.println(sim.best());
         } catch (Exception ignored) {}
     }
 
@@ -668,83 +668,6 @@ public class GameController {
     private double powerUpHalfW = powerUpDrawW / 2.0;
     private double powerUpHalfH = powerUpDrawH / 2.0;
 
-    // ... (rest of the power-up related fields like powerUps list, timers, etc.) ...
-
-    private enum PowerUpType {
-        SHIELD, RAPID_FIRE, EXTRA_LIFE, SCORE_BONUS
-    }
-
-    private static class PowerUp {
-        double x, y, vy;
-        PowerUpType type;
-        double radius = 15; // Collision and drawing radius
-
-        PowerUp(double x, double y, double vy, PowerUpType type) {
-            this.x = x;
-            this.y = y;
-            this.vy = vy;
-            this.type = type;
-        }
-    }
-
-    private final List<PowerUp> powerUps = new ArrayList<>();
-    private double powerUpSpawnTimer = 5.0; // Spawn roughly every 5 seconds initially
-
-    // Timers for temporary effects
-    private boolean shieldActive = false;
-    private double shieldTimer = 0.0;
-    private static final double SHIELD_DURATION = 5.0; // seconds
-
-    private boolean rapidFireActive = false;
-    private double rapidFireTimer = 0.0;
-    private static final double RAPID_FIRE_DURATION = 7.0; // seconds
-    private static final double RAPID_FIRE_MULTIPLIER = 0.5; // Halves the cooldown
-
-    // Inside GameController.java
-
-    private void spawnRandomPowerUp() {
-        double w = canvas.getWidth();
-        double spawnX = 50 + rnd.nextDouble() * (w - 100); // Spawn within screen bounds
-        double spawnY = -30; // Start just above the screen
-        double fallSpeed = 100 + rnd.nextDouble() * 50; // Random fall speed
-
-        // Choose a random type
-        PowerUpType[] types = PowerUpType.values();
-        PowerUpType randomType = types[rnd.nextInt(types.length)];
-
-        powerUps.add(new PowerUp(spawnX, spawnY, fallSpeed, randomType));
-    }
-
-    // Inside GameController.java
-
-    private void applyPowerUp(PowerUpType type) {
-        switch (type) {
-            case SHIELD:
-                shieldActive = true;
-                shieldTimer = SHIELD_DURATION;
-                // Maybe play shield activation sound
-                break;
-            case RAPID_FIRE:
-                rapidFireActive = true;
-                rapidFireTimer = RAPID_FIRE_DURATION;
-                // Maybe play rapid fire sound cue
-                break;
-            case EXTRA_LIFE:
-                if (lives < 5) { // Cap lives at 5, for example
-                    lives++;
-                    updateHud();
-                    // Maybe play extra life sound
-                }
-                break;
-            case SCORE_BONUS:
-                score += 100; // Add 100 points
-                if (score > best) best = score; // Check if it pushes score over best
-                updateHud();
-                // Maybe play score bonus sound
-                break;
-        }
-    }
-
     // load power-up images
 
     private void loadPowerUpImages() {
@@ -783,6 +706,7 @@ public class GameController {
     private void handleEndOfGameScore() {
         System.out.println("DEBUG: handleEndOfGameScore() called. Current Mode: " + MainApp.currentGameMode); // Keep for debugging
         saveBest(); // Always try saving overall best score
+        final int score = sim.score(); // sim thread is stopped; capture before a restart resets it
 
         // REMOVED THE IF CHECK - Pop-up logic will now always run:
         System.out.println("DEBUG: Preparing pop-up for leaderboard entry."); // Updated debug message
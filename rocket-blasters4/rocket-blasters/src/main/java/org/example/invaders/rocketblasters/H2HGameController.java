@@ -16,17 +16,32 @@ import javafx.scene.paint.Color;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.stage.Window;
+import org.example.invaders.rocketblasters.model.EntityStore;
+import org.example.invaders.rocketblasters.net.BinaryProtocol;
 import org.example.invaders.rocketblasters.net.NetLink;
+import org.example.invaders.rocketblasters.render.CanvasRenderer;
+import org.example.invaders.rocketblasters.render.DrawList;
+import org.example.invaders.rocketblasters.render.ParticleSystem;
+import org.example.invaders.rocketblasters.render.SpriteAtlas;
+import org.example.invaders.rocketblasters.sim.H2HShip;
+import org.example.invaders.rocketblasters.sim.Input;
+import org.example.invaders.rocketblasters.sim.Swept;
+import org.example.invaders.rocketblasters.util.HudLabel;
+import org.example.invaders.rocketblasters.util.TimerWheel;
 
-import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Set;
 
 /**
  * Head-to-Head game controller (localId: 1 = GREEN/host, 2 = RED/client).
  * - Green ship:  /assets/imgi_207_ship9b.png
  * - Red ship:    /assets/imgi_262_spaceship.pod_.1.yellow_0.png
+ * Ship movement (see H2HShip):
+ * - The host moves green from its keys and red from the client's numbered inputs, and
+ *   answers with red's authoritative state.
+ * - The client predicts red from its own keys right away, replays unacknowledged inputs
+ *   on top of each host state, and follows green's POS with a lerp.
+ * - Remote shots are advanced by half the measured round trip when they arrive.
  */
 public class H2HGameController {
 
@@ -36,8 +51,15 @@ public class H2HGameController {
     @FXML private VBox  gameOverBox;
     @FXML private Button restartBtn, exitBtn;
 
+    // ======== HUD (values are set freely, Labels written once per pulse if changed) ========
+    private HudLabel hudGreen, hudRed, hudTimer;
+
     // ======== Render / Input ========
     private GraphicsContext g;
+    private CanvasRenderer out;
+    private final DrawList scene = new DrawList(256); // recorded per frame, flushed grouped by paint/image
+    private static final int L_BACKGROUND = 0, L_SHIPS = 1, L_BULLETS = 2, L_SPARKS = 3;
+    private final ParticleSystem sparks = new ParticleSystem(512); // hit sparks
     private final Set<KeyCode> pressed = new HashSet<>();
 
     // ======== Networking ========
@@ -54,10 +76,25 @@ public class H2HGameController {
     private static final double FIRE_COOLDOWN = 0.15;
     private static final double FIXED_DT = 1.0 / 60.0;
     private static final double ROUND_SECONDS = 180.0;
+    private static final int    MAX_BULLETS = 128;
+    private static final Color  BACKGROUND = Color.web("#0B1C2C");
+    private static final double TIME_BROADCAST_INTERVAL = 0.25;
+    private static final double POS_HEARTBEAT = 0.25;           // resend an unchanged position this often
+    private static final double POS_INTERVAL = 1.0 / netRate(); // -Drb.netRate (Hz), independent of FIXED_DT
+    private static final double MAX_SHOT_LEAD = 0.25;           // cap on time-of-fire correction (s)
+
+    // ======== Timer kinds (see onTimer) ========
+    private static final int T_FIRE_READY = 0;     // arg = ship id
+    private static final int T_ROUND_END = 1;
+    private static final int T_TIME_BROADCAST = 2;
+    private static final int T_POS_SEND = 3;       // rate limit, only its pending state matters
+    private static final int T_POS_HEARTBEAT = 4;  // ditto
 
     // ======== Ships (images) ========
     private Image greenShipImg;   // bottom
     private Image redShipImg;     // top
+    private SpriteAtlas atlas;    // both ships at draw size (sources dropped once packed)
+    private int greenSprite = -1, redSprite = -1;
 
     // Green ship draw size + collision radius
     private double gW = 90, gH = 120;
@@ -70,26 +107,37 @@ public class H2HGameController {
     private double R_RED = Math.min(rW, rH) * 0.38;
 
     // ======== Game state ========
-    private double gx = 700, gy = 860, gvx = 0;  // green
+    private final H2HShip green = new H2HShip(SPEED, gHalfW); // x / vx
+    private double gy = 860;
     private int hpGreen = MAX_HP;
 
-    private double rx = 700, ry =  60, rvx = 0;  // red
+    private final H2HShip red = new H2HShip(SPEED, rHalfW);
+    private double ry = 60;
     private int hpRed   = MAX_HP;
 
-    // Lerp target from remote
+    // Client: lerp target for green from the host's POS
     private double remoteTargetX, remoteTargetY;
     private boolean remotePosValid = false;
 
-    private static class Bullet {
-        int owner; double x, y, vy;
-        Bullet(int o, double x, double y, double vy){ this.owner=o; this.x=x; this.y=y; this.vy=vy; }
-    }
-    private final List<Bullet> bullets = new ArrayList<>();
-    private double cdGreen = 0, cdRed = 0;
+    // Prediction: host = last client input applied to red (+ last one acknowledged);
+    // client = inputs resent until acknowledged. rttTicks is measured by the client and
+    // reported to the host with every INPUT.
+    private int remoteInputSeq, stateSentSeq;
+    private final byte[] unsentInputs = new byte[BinaryProtocol.MAX_INPUTS];
+    private double rttTicks = -1;
+
+    private final EntityStore bullets = new EntityStore(MAX_BULLETS, false); // fixed pool, kind = owner id
+
+    // Cooldowns and the round clock expire through the wheel (advanced once per fixed tick);
+    // the int fields are wheel handles
+    private final TimerWheel timers = new TimerWheel(8, this::onTimer);
+    private int cdGreen = -1, cdRed = -1;
+    private int posSend = -1, posHeartbeat = -1;
+    private double sentX = Double.NaN, sentY, sentVx; // last position put on the wire
 
     // Timer (host authoritative)
     private double timeLeft = ROUND_SECONDS;
-    private double timeBroadcastCooldown = 0.0;
+    private int roundTimer = -1;
 
     // Spawn / size fallback
     private boolean spawned = false;
@@ -107,6 +155,7 @@ public class H2HGameController {
     @FXML
     public void initialize() {
         g = canvas.getGraphicsContext2D();
+        out = new CanvasRenderer(g);
         loadShips();
 
         Platform.runLater(() -> {
@@ -133,8 +182,13 @@ public class H2HGameController {
         canvas.heightProperty().addListener((o, ov, nv) -> spawned = false);
         if (gameOverBox != null) gameOverBox.setVisible(false);
 
+        hudGreen = new HudLabel(lblP1, "Green HP: ");
+        hudRed = new HudLabel(lblP2, "Red HP: ");
+        hudTimer = new HudLabel(lblTimer, t -> String.format("%02d:%02d", t / 60, t % 60));
         updateHpLabels();
         updateTimerLabel();
+        flushHud();
+        armRoundTimers();
         startLoop();
     }
 
@@ -151,6 +205,11 @@ public class H2HGameController {
         } catch (Exception e) {
             System.err.println("Red ship not found -> will draw circle");
         }
+        SpriteAtlas.Builder b = new SpriteAtlas.Builder(SpriteAtlas.outputScale());
+        greenSprite = b.add(greenShipImg, gW, gH);
+        redSprite = b.add(redShipImg, rW, rH);
+        atlas = b.build();
+        greenShipImg = redShipImg = null;
     }
 
     public void setNetLink(NetLink link, int localId) {
@@ -168,7 +227,9 @@ public class H2HGameController {
                 if (dt > 0.25) dt = 0.25;
                 acc += dt;
                 while (acc >= FIXED_DT) { tickFixed(FIXED_DT); acc -= FIXED_DT; }
+                if (link != null) link.flush(); // everything this pulse's steps sent, in one write
                 render();
+                flushHud();
             }
         };
         loop.start();
@@ -180,57 +241,97 @@ public class H2HGameController {
         if (w <= 1) w = lastW; else lastW = w;
         if (h <= 1) h = lastH; else lastH = h;
 
-        gx = w * 0.5; gy = h - (gHalfH + 20);
-        rx = w * 0.5; ry = (rHalfH + 20);
+        green.setWidth(w); red.setWidth(w);
+        green.reset(w * 0.5); gy = h - (gHalfH + 20);
+        red.reset(w * 0.5);   ry = (rHalfH + 20);
         clampInside();
         spawned = true;
     }
 
     private void tickFixed(double dt) {
+        if (link != null) link.drainInbound(); // remote messages land between steps only
         ensureSpawned();
+        sparks.update(dt); // keeps fading after the round ends
 
         if (hpGreen <= 0 || hpRed <= 0 || timeLeft <= 0) return;
+        timers.advance();
 
-        cdGreen = Math.max(0, cdGreen - dt);
-        cdRed   = Math.max(0, cdRed   - dt);
+        clampInside();
 
         // Local controls
+        int input = localInput();
         if (iAmGreen()) {
-            gvx = 0;
-            if (pressed.contains(KeyCode.A) || pressed.contains(KeyCode.LEFT))  gvx -= SPEED;
-            if (pressed.contains(KeyCode.D) || pressed.contains(KeyCode.RIGHT)) gvx += SPEED;
-            if ((pressed.contains(KeyCode.SPACE) || pressed.contains(KeyCode.ENTER)) && cdGreen == 0) {
-                fireLocal(1, gx, gy - gHalfH);
-                cdGreen = FIRE_COOLDOWN;
+            if (Input.has(input, Input.FIRE) && !timers.isPending(cdGreen)) {
+                fireLocal(1, green.x(), gy - gHalfH);
+                cdGreen = timers.schedule(TimerWheel.ticks(FIRE_COOLDOWN, FIXED_DT), T_FIRE_READY, 1);
             }
-            gx += gvx * dt;
+            green.step(input, dt);
         } else {
-            rvx = 0;
-            if (pressed.contains(KeyCode.LEFT)  || pressed.contains(KeyCode.J)) rvx -= SPEED;
-            if (pressed.contains(KeyCode.RIGHT) || pressed.contains(KeyCode.L)) rvx += SPEED;
-            if ((pressed.contains(KeyCode.SPACE) || pressed.contains(KeyCode.ENTER)) && cdRed == 0) {
-                fireLocal(2, rx, ry + rHalfH);
-                cdRed = FIRE_COOLDOWN;
+            if (Input.has(input, Input.FIRE) && !timers.isPending(cdRed)) {
+                fireLocal(2, red.x(), ry + rHalfH);
+                cdRed = timers.schedule(TimerWheel.ticks(FIRE_COOLDOWN, FIXED_DT), T_FIRE_READY, 2);
             }
-            rx += rvx * dt;
+            if (link != null) red.record(input); // predicted; replayed when the host's state arrives
+            red.step(input, dt);
         }
 
-        // Apply remote smoothing
-        if (remotePosValid) {
+        // Client: follow the host's ship
+        if (iAmRed() && remotePosValid) {
             double a = 0.18;
-            if (iAmGreen()) { rx += (remoteTargetX - rx) * a; ry += (remoteTargetY - ry) * a; }
-            else            { gx += (remoteTargetX - gx) * a; gy += (remoteTargetY - gy) * a; }
+            green.setX(green.x() + (remoteTargetX - green.x()) * a);
+            gy += (remoteTargetY - gy) * a;
+            clampInside();
         }
 
-        clampInside();
         updateBullets(dt);
-        updateTimer(dt);
+        updateTimer();
         updateTimerLabel();
 
-        // Broadcast local position
-        if (link != null) {
-            if (iAmGreen()) link.sendPosition(1, gx, gy, gvx, 0);
-            else            link.sendPosition(2, rx, ry, rvx, 0);
+        // Host: own position + red's authoritative state; client: its unacknowledged inputs
+        if (link != null && !timers.isPending(posSend)) {
+            if (iAmGreen()) {
+                sendPosition(1, green.x(), gy, green.vx());
+                if (remoteInputSeq != stateSentSeq) {
+                    link.sendState(2, remoteInputSeq, red.x(), ry, red.vx());
+                    stateSentSeq = remoteInputSeq;
+                }
+            } else {
+                int n = red.unacked(unsentInputs);
+                if (n > 0) link.sendInput((int) Math.round(Math.max(0, rttTicks)), red.lastSeq(), unsentInputs, n);
+            }
+            posSend = timers.schedule(TimerWheel.ticks(POS_INTERVAL, FIXED_DT), T_POS_SEND, 0);
+        }
+    }
+
+    /** Movement/fire keys of the local player as an Input mask. */
+    private int localInput() {
+        int input = Input.NONE;
+        if (iAmGreen()) {
+            if (pressed.contains(KeyCode.A) || pressed.contains(KeyCode.LEFT))  input |= Input.LEFT;
+            if (pressed.contains(KeyCode.D) || pressed.contains(KeyCode.RIGHT)) input |= Input.RIGHT;
+        } else {
+            if (pressed.contains(KeyCode.LEFT)  || pressed.contains(KeyCode.J)) input |= Input.LEFT;
+            if (pressed.contains(KeyCode.RIGHT) || pressed.contains(KeyCode.L)) input |= Input.RIGHT;
+        }
+        if (pressed.contains(KeyCode.SPACE) || pressed.contains(KeyCode.ENTER)) input |= Input.FIRE;
+        return input;
+    }
+
+    /** Skips positions the peer already has, except for a periodic heartbeat (UDP may lose one). */
+    private void sendPosition(int id, double x, double y, double vx) {
+        if (x == sentX && y == sentY && vx == sentVx && timers.isPending(posHeartbeat)) return;
+        link.sendPosition(id, x, y, vx, 0);
+        sentX = x; sentY = y; sentVx = vx;
+        timers.cancel(posHeartbeat);
+        posHeartbeat = timers.schedule(TimerWheel.ticks(POS_HEARTBEAT, FIXED_DT), T_POS_HEARTBEAT, 0);
+    }
+
+    private static double netRate() {
+        try {
+            return Math.max(1, Double.parseDouble(System.getProperty("rb.netRate", "60")));
+        } catch (NumberFormatException e) {
+            System.err.println("[Net] bad rb.netRate, using 60");
+            return 60;
         }
     }
 
@@ -238,82 +339,106 @@ public class H2HGameController {
         double w = Math.max(2, canvas.getWidth()  > 1 ? canvas.getWidth()  : lastW);
         double h = Math.max(2, canvas.getHeight() > 1 ? canvas.getHeight() : lastH);
 
-        gx = Math.max(gHalfW, Math.min(w - gHalfW, gx));
+        green.setWidth(w);
         gy = Math.max(gHalfH, Math.min(h - gHalfH, gy));
 
-        rx = Math.max(rHalfW, Math.min(w - rHalfW, rx));
+        red.setWidth(w);
         ry = Math.max(rHalfH, Math.min(h - rHalfH, ry));
     }
 
     private void updateBullets(double dt) {
+        final double[] bx = bullets.x, by = bullets.y, bvy = bullets.vy;
+        final int[] owner = bullets.kind;
+        final double gx = green.x(), rx = red.x();
         for (int i = bullets.size() - 1; i >= 0; i--) {
-            Bullet b = bullets.get(i);
-            b.y += b.vy * dt;
+            double y0 = by[i];
+            by[i] += bvy[i] * dt;
 
-            if (b.y < -20 || b.y > canvas.getHeight() + 20) {
-                bullets.remove(i);
-                continue;
-            }
-            if (iAmGreen() && b.owner == 1) {
-                if (hit(b.x, b.y, B_R, rx, ry, R_RED)) {
-                    bullets.remove(i);
+            // swept along the step so a fast bullet can't skip over a ship
+            if (iAmGreen() && owner[i] == 1) {
+                if (Swept.segmentCircle(bx[i], y0, bx[i], by[i], rx, ry, B_R + R_RED) >= 0) {
+                    bullets.removeAt(i);
                     damageRed();
                     if (link != null) link.sendHit(2);
+                    continue;
                 }
-            } else if (iAmRed() && b.owner == 2) {
-                if (hit(b.x, b.y, B_R, gx, gy, R_GREEN)) {
-                    bullets.remove(i);
+            } else if (iAmRed() && owner[i] == 2) {
+                if (Swept.segmentCircle(bx[i], y0, bx[i], by[i], gx, gy, B_R + R_GREEN) >= 0) {
+                    bullets.removeAt(i);
                     damageGreen();
                     if (link != null) link.sendHit(1);
+                    continue;
                 }
             }
+
+            if (by[i] < -20 || by[i] > canvas.getHeight() + 20) bullets.removeAt(i);
         }
     }
 
-    private void updateTimer(double dt) {
-        if (iAmGreen()) {
-            timeLeft = Math.max(0, timeLeft - dt);
-            timeBroadcastCooldown -= dt;
-            if (timeBroadcastCooldown <= 0 && link != null) {
-                link.sendTime(timeLeft);
-                timeBroadcastCooldown = 0.25;
-            }
-            if (timeLeft <= 0) endByTime();
+    private void updateTimer() {
+        if (iAmGreen() && timers.isPending(roundTimer)) {
+            timeLeft = timers.remaining(roundTimer) * FIXED_DT;
         }
     }
 
-    private static boolean hit(double x1, double y1, double r1, double x2, double y2, double r2) {
-        double dx = x1 - x2, dy = y1 - y2;
-        return dx * dx + dy * dy <= (r1 + r2) * (r1 + r2);
+    /** Round clock + periodic time sync; both only act on the host (see onTimer). */
+    private void armRoundTimers() {
+        roundTimer = timers.schedule(TimerWheel.ticks(ROUND_SECONDS, FIXED_DT), T_ROUND_END, 0);
+        timers.schedule(1, T_TIME_BROADCAST, 0);
+    }
+
+    private void onTimer(int kind, int arg) {
+        switch (kind) {
+            case T_ROUND_END:
+                if (iAmGreen()) { // the client ends on the host's time instead
+                    timeLeft = 0;
+                    endByTime();
+                }
+                break;
+            case T_TIME_BROADCAST:
+                if (iAmGreen() && link != null) link.sendTime(timeLeft);
+                timers.schedule(TimerWheel.ticks(TIME_BROADCAST_INTERVAL, FIXED_DT), T_TIME_BROADCAST, 0);
+                break;
+            default: // T_FIRE_READY, T_POS_*: only their pending state matters
+                break;
+        }
     }
 
     // ======== RENDER ========
     private void render() {
         ensureSpawned();
-        g.setFill(Color.web("#0B1C2C"));
-        g.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        scene.layer(L_BACKGROUND);
+        scene.fillRect(BACKGROUND, 0, 0, canvas.getWidth(), canvas.getHeight());
 
         // Red (top)
-        if (redShipImg != null) g.drawImage(redShipImg, rx - rHalfW, ry - rHalfH, rW, rH);
-        else { g.setFill(Color.CRIMSON); g.fillOval(rx - R_RED, ry - R_RED, R_RED*2, R_RED*2); }
+        double gx = green.x(), rx = red.x();
+        scene.layer(L_SHIPS);
+        if (redSprite >= 0) atlas.draw(scene, redSprite, rx - rHalfW, ry - rHalfH);
+        else scene.fillOval(Color.CRIMSON, rx - R_RED, ry - R_RED, R_RED*2, R_RED*2);
 
         // Green (bottom)
-        if (greenShipImg != null) g.drawImage(greenShipImg, gx - gHalfW, gy - gHalfH, gW, gH);
-        else { g.setFill(Color.LIME); g.fillOval(gx - R_GREEN, gy - R_GREEN, R_GREEN*2, R_GREEN*2); }
+        if (greenSprite >= 0) atlas.draw(scene, greenSprite, gx - gHalfW, gy - gHalfH);
+        else scene.fillOval(Color.LIME, gx - R_GREEN, gy - R_GREEN, R_GREEN*2, R_GREEN*2);
 
         // Bullets
-        g.setFill(Color.WHITE);
-        for (Bullet b : bullets) g.fillOval(b.x - B_R, b.y - B_R, B_R * 2, B_R * 2);
+        scene.layer(L_BULLETS);
+        for (int i = 0; i < bullets.size(); i++) scene.fillOval(Color.WHITE, bullets.x[i] - B_R, bullets.y[i] - B_R, B_R * 2, B_R * 2);
 
-        updateHpLabels();
+        scene.layer(L_SPARKS);
+        sparks.resize(canvas.getWidth(), canvas.getHeight());
+        sparks.render(scene);
+
+        scene.flush(out);
     }
 
     // ======== DAMAGE / END ========
     private void damageGreen() {
+        sparks.burst(green.x(), gy - gHalfH * 0.5, 20, 260, 0.45, 0x60FF80); // bullets come from above
         if (--hpGreen <= 0) gameOver("Red wins!");
         else updateHpLabels();
     }
     private void damageRed() {
+        sparks.burst(red.x(), ry + rHalfH * 0.5, 20, 260, 0.45, 0xFF6040);
         if (--hpRed <= 0) gameOver("Green wins!");
         else updateHpLabels();
     }
@@ -326,36 +451,63 @@ public class H2HGameController {
 
     private void gameOver(String msg) {
         if (loop != null) loop.stop();
+        flushHud(); // the loop will not do it any more
         showResultDialog(msg);
     }
 
     // ======== UI helpers ========
     private void updateHpLabels() {
-        if (lblP1 != null) lblP1.setText("Green HP: " + hpGreen);
-        if (lblP2 != null) lblP2.setText("Red HP: " + hpRed);
+        hudGreen.set(hpGreen);
+        hudRed.set(hpRed);
     }
 
     private void updateTimerLabel() {
-        if (lblTimer == null) return;
-        int t = (int) Math.ceil(timeLeft);
-        lblTimer.setText(String.format("%02d:%02d", Math.max(0, t/60), Math.max(0, t%60)));
+        hudTimer.set(Math.max(0, (int) Math.ceil(timeLeft)));
+    }
+
+    /** Writes changed HUD values to their Labels (once per pulse). */
+    private void flushHud() {
+        hudGreen.flush();
+        hudRed.flush();
+        hudTimer.flush();
     }
 
     // ======== SHOOT / NETWORK ========
     private void fireLocal(int id, double x, double y) {
-        bullets.add(new Bullet(id, x, y, id == 1 ? -B_SPD : +B_SPD));
+        bullets.add(x, y, 0, id == 1 ? -B_SPD : +B_SPD, id);
         if (link != null) link.sendShot(id, x, y);
     }
 
+    /** Advanced by the estimated one-way delay, so it shows about where the shooter sees it. */
     public void onRemoteShot(int id, double x, double y) {
-        bullets.add(new Bullet(id, x, y, id == 1 ? -B_SPD : +B_SPD));
+        double vy = id == 1 ? -B_SPD : +B_SPD;
+        double lead = rttTicks > 0 ? Math.min(MAX_SHOT_LEAD, rttTicks * FIXED_DT * 0.5) : 0;
+        bullets.add(x, y + vy * lead, 0, vy, id);
     }
 
     public void onRemotePosition(int id, double x, double y, double vx, double vy) {
-        if (id == localId) return; // ignore echoes
+        if (id == localId || iAmGreen()) return; // echoes; the host steps red from inputs instead
         remoteTargetX = x; remoteTargetY = y; remotePosValid = true;
     }
 
+    /** Host: one numbered input of the client's ship (repeats and old ones are skipped). */
+    public void onRemoteInput(int seq, int input, int rttTicks) {
+        if (!iAmGreen() || seq - remoteInputSeq <= 0) return;
+        remoteInputSeq = seq;
+        this.rttTicks = rttTicks;
+        if (hpGreen <= 0 || hpRed <= 0 || timeLeft <= 0) return; // round over: acknowledged, not moved
+        red.step(input, FIXED_DT);
+    }
+
+    /** Client: the host's state of our ship after input {@code ackSeq}. */
+    public void onRemoteState(int id, int ackSeq, double x, double y, double vx) {
+        if (id != localId || !iAmRed()) return;
+        red.reconcile(ackSeq, x, FIXED_DT);
+        if (red.acked() != ackSeq) return; // older than one already applied (or a previous round)
+        int sample = red.lastSeq() - ackSeq;
+        rttTicks = rttTicks < 0 ? sample : rttTicks + (sample - rttTicks) * 0.1;
+    }
+
     public void onRemoteHit(int targetId) {
         if (targetId == 1) damageGreen(); else damageRed();
     }
@@ -367,6 +519,9 @@ public class H2HGameController {
         }
     }
 
+    // The onRemote* methods run on the FX thread from link.drainInbound(); the two below
+    // are called from the network thread.
+
     /** Peer requests a restart. */
     public void remoteRestart() {
         Platform.runLater(() -> {
@@ -434,8 +589,14 @@ public class H2HGameController {
     private void resetRound() {
         hpGreen = MAX_HP; hpRed = MAX_HP;
         bullets.clear(); pressed.clear();
+        sparks.clear();
         remotePosValid = false;
         timeLeft = ROUND_SECONDS;
+        timers.clear();
+        cdGreen = cdRed = -1;
+        posSend = posHeartbeat = -1;
+        sentX = Double.NaN;
+        armRoundTimers();
         acc = 0; lastNanos = 0;
         spawned = false; // respawn at new canvas size if resized
 
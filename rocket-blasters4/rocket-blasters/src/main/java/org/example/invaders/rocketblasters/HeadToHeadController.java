@@ -6,6 +6,7 @@ import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import org.example.invaders.rocketblasters.net.NetLink;
+import org.example.invaders.rocketblasters.net.UdpChannel;
 
 import java.io.IOException;
 import java.net.InetAddress;
@@ -15,6 +16,9 @@ import java.net.Socket;
 /**
  * Controller for the Head-to-Head (Online) setup screen.
  * This screen shows options to HOST or JOIN a match before launching the H2H game view.
+ * Both sides open a TCP connection plus a UDP channel for positions; the host's UDP
+ * port is the TCP port (forward both), the client's is any. The ports are exchanged in
+ * the NetLink handshake, and a match still works over TCP alone if UDP is blocked.
  */
 public class HeadToHeadController {
 
@@ -38,7 +42,8 @@ public class HeadToHeadController {
                 Socket client = ss.accept();
                 setStatus("Client connected: " + client.getInetAddress().getHostAddress());
 
-                Platform.runLater(() -> launchMatch(client, /*localId=*/1)); // Host = green
+                UdpChannel udp = openUdp(client, port);
+                Platform.runLater(() -> launchMatch(client, udp, /*localId=*/1)); // Host = green
             } catch (IOException e) {
                 setStatus("Host error: " + e.getMessage());
             }
@@ -59,7 +64,8 @@ public class HeadToHeadController {
             try {
                 Socket sock = new Socket(host, port);
                 setStatus("Connected to host!");
-                Platform.runLater(() -> launchMatch(sock, /*localId=*/2)); // Client = red
+                UdpChannel udp = openUdp(sock, 0);
+                Platform.runLater(() -> launchMatch(sock, udp, /*localId=*/2)); // Client = red
             } catch (IOException e) {
                 setStatus("Join error: " + e.getMessage());
             }
@@ -73,7 +79,7 @@ public class HeadToHeadController {
     }
 
     // ==== Launch the real battle scene ====
-    private void launchMatch(Socket socket, int localId) {
+    private void launchMatch(Socket socket, UdpChannel udp, int localId) {
         try {
             H2HGameController ctrl = MainApp.loadAndSet(
                     "/org/example/invaders/rocketblasters/H2HGameView.fxml",
@@ -82,10 +88,11 @@ public class HeadToHeadController {
             if (ctrl == null) {
                 setStatus("Failed to load H2HGameView.fxml");
                 socket.close();
+                if (udp != null) udp.close();
                 return;
             }
 
-            NetLink link = new NetLink(socket, ctrl, localId);
+            NetLink link = new NetLink(socket, udp, ctrl, localId);
             ctrl.setNetLink(link, localId);
 
             Thread t = new Thread(link, localId == 1 ? "H2H-Net[HOST]" : "H2H-Net[CLIENT]");
@@ -98,6 +105,18 @@ public class HeadToHeadController {
         }
     }
 
+    /** UDP side channel next to {@code tcp}, or null (positions then stay on TCP). */
+    private UdpChannel openUdp(Socket tcp, int port) {
+        try {
+            UdpChannel udp = UdpChannel.open(tcp, port);
+            setStatus("UDP positions on port " + udp.localPort());
+            return udp;
+        } catch (IOException e) {
+            setStatus("UDP unavailable (" + e.getMessage() + "), using TCP only");
+            return null;
+        }
+    }
+
     // ==== Utility ====
     private void setStatus(String msg) {
         if (status != null) Platform.runLater(() -> status.setText("Status: " + msg));
@@ -6,6 +6,7 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 import org.example.invaders.rocketblasters.net.NetLink;
+import org.example.invaders.rocketblasters.net.UdpChannel;
 
 import java.io.IOException;
 import java.net.InetAddress;
@@ -84,8 +85,8 @@ public class LocalH2HLauncher extends Application {
         try { ss.close(); } catch (Exception ignored) {}
 
         // Build NetLinks and start their receive loops
-        hostLink = new NetLink(hostSock, hostCtrl, /*localId=*/1);
-        clientLink = new NetLink(clientSock, clientCtrl, /*localId=*/2);
+        hostLink = new NetLink(hostSock, UdpChannel.open(hostSock, 0), hostCtrl, /*localId=*/1);
+        clientLink = new NetLink(clientSock, UdpChannel.open(clientSock, 0), clientCtrl, /*localId=*/2);
 
         hostCtrl.setNetLink(hostLink, 1);
         clientCtrl.setNetLink(clientLink, 2);
@@ -43,6 +43,12 @@ public class MenuController {
         MainApp.setRoot("/org/example/invaders/rocketblasters/LeaderboardView.fxml");
     }
 
+    @FXML
+    private void onStressTest() {
+        MainApp.currentGameMode = GameMode.STRESS;
+        MainApp.setRoot("/org/example/invaders/rocketblasters/GameView.fxml");
+    }
+
     @FXML
     private void onLeaderboard() {
         MainApp.setRoot("/org/example/invaders/rocketblasters/LeaderboardView.fxml");
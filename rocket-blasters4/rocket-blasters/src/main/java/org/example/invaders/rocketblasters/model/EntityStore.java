@@ -0,0 +1,144 @@
+package org.example.invaders.rocketblasters.model;
+
+import java.util.Arrays;
+
+/**
+ * Struct-of-arrays storage for many small entities (bullets, enemies, power-ups).
+ * - Live entities occupy slots 0..size()-1 of parallel primitive columns, so update
+ *   and render loops walk contiguous memory.
+ * - {@link #removeAt} is O(1): the last slot is swapped into the hole.
+ * - Handles stay valid across swaps (slot = slotOf(handle)) and go stale after removal
+ *   thanks to a generation counter, so timers or network ids can refer to an entity.
+ * - A non-growable store is a fixed pool: slots are recycled and {@link #add} never
+ *   allocates; it returns -1 once the pool is full.
+ */
+public class EntityStore {
+
+    private static final int INDEX_BITS = 22;
+    private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+    private static final int GEN_MASK = (1 << (31 - INDEX_BITS)) - 1;
+
+    // ===== Columns (slot-indexed, valid for 0..size-1) =====
+    public double[] x, y, vx, vy;
+    public double[] x0, y0;  // position at the start of the current step (see savePrevious)
+    public int[] kind;    // entity-specific tag: power-up type, bullet owner, ...
+
+    private int[] handleOf; // slot -> handle index
+    private int[] slotOf;   // handle index -> slot (-1 when free)
+    private int[] gen;      // handle index -> generation
+    private int[] freeHandles;
+    private int freeCount;
+    private int handleCount;
+    private int size;
+    private final boolean growable;
+
+    public EntityStore(int capacity) {
+        this(capacity, true);
+    }
+
+    public EntityStore(int capacity, boolean growable) {
+        this.growable = growable;
+        int cap = Math.max(4, capacity);
+        x = new double[cap]; y = new double[cap];
+        x0 = new double[cap]; y0 = new double[cap];
+        vx = new double[cap]; vy = new double[cap];
+        kind = new int[cap];
+        handleOf = new int[cap];
+        slotOf = new int[cap];
+        gen = new int[cap];
+        freeHandles = new int[cap];
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public int capacity() { return x.length; }
+    public boolean isFull() { return !growable && size == x.length; }
+
+    /**
+     * Appends an entity.
+     * @return its slot (see {@link #handleAt} for a stable reference), or -1 if a fixed pool is full
+     */
+    public int add(double x, double y, double vx, double vy, int kind) {
+        if (size == this.x.length) {
+            if (!growable) return -1;
+            grow();
+        }
+        int h = freeCount > 0 ? freeHandles[--freeCount] : handleCount++;
+        int s = size++;
+        this.x[s] = x; this.y[s] = y;
+        this.x0[s] = x; this.y0[s] = y;
+        this.vx[s] = vx; this.vy[s] = vy;
+        this.kind[s] = kind;
+        handleOf[s] = h;
+        slotOf[h] = s;
+        return s;
+    }
+
+    /**
+     * Swap-removes the entity at {@code slot}.
+     * @return the slot the moved entity came from (the old last slot), or -1 if nothing moved
+     */
+    public int removeAt(int slot) {
+        int last = --size;
+        int h = handleOf[slot];
+        slotOf[h] = -1;
+        gen[h] = (gen[h] + 1) & GEN_MASK;
+        freeHandles[freeCount++] = h;
+        if (slot == last) return -1;
+
+        x[slot] = x[last]; y[slot] = y[last];
+        x0[slot] = x0[last]; y0[slot] = y0[last];
+        vx[slot] = vx[last]; vy[slot] = vy[last];
+        kind[slot] = kind[last];
+        int moved = handleOf[last];
+        handleOf[slot] = moved;
+        slotOf[moved] = slot;
+        return last;
+    }
+
+    public void clear() {
+        for (int s = 0; s < size; s++) {
+            int h = handleOf[s];
+            slotOf[h] = -1;
+            gen[h] = (gen[h] + 1) & GEN_MASK;
+            freeHandles[freeCount++] = h;
+        }
+        size = 0;
+    }
+
+    /** Copies x/y into x0/y0; call once at the start of a step, before moving anything. */
+    public void savePrevious() {
+        System.arraycopy(x, 0, x0, 0, size);
+        System.arraycopy(y, 0, y0, 0, size);
+    }
+
+    // ===== Handles =====
+
+    public int handleAt(int slot) {
+        int h = handleOf[slot];
+        return (gen[h] << INDEX_BITS) | h;
+    }
+
+    /** @return current slot of the entity, or -1 if it has been removed */
+    public int slotOf(int handle) {
+        int h = handle & INDEX_MASK;
+        if (h >= handleCount || gen[h] != (handle >>> INDEX_BITS)) return -1;
+        return slotOf[h];
+    }
+
+    public boolean isAlive(int handle) {
+        return slotOf(handle) >= 0;
+    }
+
+    private void grow() {
+        int cap = x.length * 2;
+        x = Arrays.copyOf(x, cap); y = Arrays.copyOf(y, cap);
+        x0 = Arrays.copyOf(x0, cap); y0 = Arrays.copyOf(y0, cap);
+        vx = Arrays.copyOf(vx, cap); vy = Arrays.copyOf(vy, cap);
+        kind = Arrays.copyOf(kind, cap);
+        handleOf = Arrays.copyOf(handleOf, cap);
+        slotOf = Arrays.copyOf(slotOf, cap);
+        gen = Arrays.copyOf(gen, cap);
+        freeHandles = Arrays.copyOf(freeHandles, cap);
+    }
+}
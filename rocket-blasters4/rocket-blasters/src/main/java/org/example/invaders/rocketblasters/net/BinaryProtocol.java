@@ -0,0 +1,78 @@
+package org.example.invaders.rocketblasters.net;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Wire format of the binary NetLink mode.
+ * - A frame is one length byte (size of what follows) + one opcode byte + fixed-width
+ *   big-endian fields. Every message fits in a few bytes, e.g. POS is 11 instead of ~60.
+ * - Positions and velocities are quantized to {@link #POS_SCALE} steps per pixel in a
+ *   signed short (+-8191 px / px/s, plenty for a 4K playfield and our speeds).
+ * - Time is sent in milliseconds.
+ * Encoders write into a caller-owned buffer; nothing here allocates.
+ */
+public final class BinaryProtocol {
+
+    /** Bumped on any incompatible change; both sides must agree or they stay on text. */
+    public static final int VERSION = 2;
+
+    public static final byte POS = 1;     // id u8, x y vx vy s16
+    public static final byte SHOT = 2;    // id u8, x y s16
+    public static final byte HIT = 3;     // target u8
+    public static final byte TIME = 4;    // millis left s32
+    public static final byte RESTART = 5;
+    public static final byte EXIT = 6;
+    public static final byte UDP_OK = 7;  // receiver -> sender: datagrams arrive
+    public static final byte INPUT = 8;   // rtt u8 (ticks), newest seq s32, count u8, count input masks u8
+    public static final byte STATE = 9;   // id u8, acked input seq s32, x y vx s16
+
+    /** Most inputs one INPUT frame repeats. */
+    public static final int MAX_INPUTS = 32;
+
+    public static final double POS_SCALE = 4.0;
+    public static final int MAX_FRAME = 1 + 255;
+
+    private BinaryProtocol() {}
+
+    public static short quantize(double v) {
+        long q = Math.round(v * POS_SCALE);
+        return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, q));
+    }
+
+    public static double dequantize(short q) {
+        return q / POS_SCALE;
+    }
+
+    public static void pos(ByteBuffer b, int id, double x, double y, double vx, double vy) {
+        b.put((byte) 10).put(POS).put((byte) id)
+         .putShort(quantize(x)).putShort(quantize(y)).putShort(quantize(vx)).putShort(quantize(vy));
+    }
+
+    public static void shot(ByteBuffer b, int id, double x, double y) {
+        b.put((byte) 6).put(SHOT).put((byte) id).putShort(quantize(x)).putShort(quantize(y));
+    }
+
+    public static void hit(ByteBuffer b, int targetId) {
+        b.put((byte) 2).put(HIT).put((byte) targetId);
+    }
+
+    public static void time(ByteBuffer b, double secondsLeft) {
+        b.put((byte) 5).put(TIME).putInt((int) Math.round(secondsLeft * 1000));
+    }
+
+    /** @param inputs oldest first; the last one is input {@code newestSeq} */
+    public static void input(ByteBuffer b, int rttTicks, int newestSeq, byte[] inputs, int count) {
+        count = Math.min(count, MAX_INPUTS);
+        b.put((byte) (7 + count)).put(INPUT).put((byte) Math.min(255, rttTicks))
+         .putInt(newestSeq).put((byte) count).put(inputs, 0, count);
+    }
+
+    public static void state(ByteBuffer b, int id, int ackSeq, double x, double y, double vx) {
+        b.put((byte) 12).put(STATE).put((byte) id).putInt(ackSeq)
+         .putShort(quantize(x)).putShort(quantize(y)).putShort(quantize(vx));
+    }
+
+    public static void simple(ByteBuffer b, byte opcode) {
+        b.put((byte) 1).put(opcode);
+    }
+}
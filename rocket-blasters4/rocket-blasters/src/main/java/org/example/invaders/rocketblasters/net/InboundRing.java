@@ -0,0 +1,96 @@
+package org.example.invaders.rocketblasters.net;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free single-producer / single-consumer queue of decoded messages.
+ * - A message is an opcode ({@link BinaryProtocol}), an id and up to four numbers, stored
+ *   in preallocated parallel arrays; neither side allocates.
+ * - The producer (a NetLink receive thread) publishes with an ordered store of the tail;
+ *   the consumer (FX thread) takes messages with {@link #drain}.
+ * - Full rings behave per use: a reliable ring refuses the message ({@link #offer} returns
+ *   false, the caller treats it as a broken link); a lossy ring, for messages where only
+ *   the newest matters, drops its oldest entry instead. In lossy mode the producer moves
+ *   the head by CAS, and the consumer claims every slot by CAS before delivering it, so a
+ *   slot overwritten while being read is skipped rather than delivered torn.
+ */
+public final class InboundRing {
+
+    /** Receives drained messages. */
+    public interface Sink {
+        void message(byte kind, int id, double a, double b, double c, double d);
+    }
+
+    private final byte[] kind;
+    private final int[] id;
+    private final double[] a, b, c, d;
+    private final int mask;
+    private final boolean dropOldest;
+
+    private final AtomicLong head = new AtomicLong(); // next slot to read
+    private final AtomicLong tail = new AtomicLong(); // next slot to write; written by the producer
+    private volatile long dropped;
+
+    /**
+     * @param capacity   rounded up to a power of two
+     * @param dropOldest lossy mode (see the class comment)
+     */
+    public InboundRing(int capacity, boolean dropOldest) {
+        int cap = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        kind = new byte[cap];
+        id = new int[cap];
+        a = new double[cap]; b = new double[cap]; c = new double[cap]; d = new double[cap];
+        mask = cap - 1;
+        this.dropOldest = dropOldest;
+    }
+
+    // ===== producer =====
+
+    /** @return false if the ring is full and not lossy (the message was not queued) */
+    boolean offer(byte kind, int id, double a, double b, double c, double d) {
+        long t = tail.get();
+        for (;;) {
+            long h = head.get();
+            if (t - h <= mask) break;
+            if (!dropOldest) return false;
+            if (head.compareAndSet(h, h + 1)) {
+                dropped++; // single writer
+                break;
+            }
+        }
+        int i = (int) (t & mask);
+        this.kind[i] = kind;
+        this.id[i] = id;
+        this.a[i] = a; this.b[i] = b; this.c[i] = c; this.d[i] = d;
+        tail.lazySet(t + 1); // slot contents become visible before the new tail
+        return true;
+    }
+
+    /** One past the last published sequence number (the next message's). */
+    long end() { return tail.get(); }
+
+    // ===== consumer =====
+
+    /**
+     * Delivers everything published so far, oldest first, skipping sequence numbers below
+     * {@code from} (messages that went stale).
+     */
+    public void drain(long from, Sink sink) {
+        long end = tail.get();
+        long s = head.get();
+        while (s < end) {
+            int i = (int) (s & mask);
+            byte k = kind[i];
+            int n = id[i];
+            double va = a[i], vb = b[i], vc = c[i], vd = d[i];
+            if (!head.compareAndSet(s, s + 1)) { // the producer dropped it meanwhile
+                s = head.get();
+                continue;
+            }
+            if (s >= from) sink.message(k, n, va, vb, vc, vd);
+            s++;
+        }
+    }
+
+    public long dropped() { return dropped; }
+}
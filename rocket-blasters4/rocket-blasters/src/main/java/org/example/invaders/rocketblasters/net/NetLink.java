@@ -1,138 +1,320 @@
 package org.example.invaders.rocketblasters.net;
 
-import javafx.application.Platform;
 import org.example.invaders.rocketblasters.H2HGameController;
 
 import java.io.*;
 import java.net.Socket;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
 /**
- * Very small line-oriented protocol over a TCP socket.
- * Lines we send/receive:
+ * Small message protocol over a TCP socket, binary by default with the old text lines as
+ * a fallback.
+ * Messages:
  *   POS <id> <x> <y> <vx> <vy>
+ *   INPUT <rttTicks> <newestSeq> <input>...   // client -> host, see H2HShip
+ *   STATE <id> <ackSeq> <x> <y> <vx>          // host -> client
  *   SHOT <id> <x> <y>
  *   HIT <targetId>
- *   TIME <secondsLeft>      // NEW – host -> client for clock sync
+ *   TIME <secondsLeft>      // host -> client for clock sync
  *   RESTART
  *   EXIT
+ *
+ * Negotiation (works against peers that only know the text lines, which ignore unknown ones):
+ * - Both sides start in text and first send {@code HELLO <version>}.
+ * - A side that receives a HELLO with our {@link BinaryProtocol#VERSION} answers with a
+ *   {@code BIN} line and from then on writes binary frames; the reader switches to frames
+ *   once it sees the peer's {@code BIN}. Anything sent before that is still a text line.
+ * - {@code -Drb.net=text} announces no version, so both directions stay on text (handy
+ *   with a packet capture or telnet).
+ *
+ * Positions, inputs and states over UDP (binary mode only):
+ * - With a {@link UdpChannel} the HELLO also carries its port: {@code HELLO <version> <udpPort>}.
+ * - A side that learns the peer's port sends every POS/INPUT/STATE as a datagram, and
+ *   over TCP as well until the peer reports ({@code UDPOK}) that datagrams actually
+ *   arrive. Blocked UDP therefore just means staying on TCP.
+ * - SHOT, HIT, TIME, RESTART and EXIT always stay on TCP.
+ *
+ * Input goes through one reused byte buffer for both modes, and binary frames are decoded
+ * straight out of it without allocating.
+ *
+ * Sending: game messages are only buffered; the game calls {@link #flush} once per
+ * frame, so everything produced by that frame's steps leaves in one write (Nagle is off,
+ * the batching is ours). Handshake, RESTART and EXIT are flushed right away.
+ *
+ * Delivery: everything except RESTART and EXIT is queued in {@link InboundRing}s and
+ * applied by {@link #drainInbound} on the FX thread at the start of each fixed step, so
+ * remote state only changes between steps. SHOT, HIT and TIME use a reliable ring (if it
+ * ever fills up the link is closed rather than losing events); POS, INPUT and STATE use
+ * lossy rings, one per receive thread, that drop their oldest entry when full. RESTART and EXIT go straight to the
+ * controller, which hops to the FX thread itself (they must also work while the round is
+ * over and nothing is stepping).
  */
-public class NetLink implements Runnable {
+public final class NetLink implements Runnable {
+
+    private static final int IN_BUFFER = 8192;
+    private static final int OUT_BUFFER = 8192;
+    private static final int INBOUND_CAPACITY = 1024;
 
     private final Socket socket;
     private final H2HGameController controller;
     private final int localId;
+    private final boolean binaryAllowed;
+    private final UdpChannel udp;           // null: TCP only
 
-    private BufferedReader in;
-    private PrintWriter out;
+    private InputStream in;
+    private OutputStream out;
+    private final ByteBuffer inBuf = ByteBuffer.allocate(IN_BUFFER);   // read loop only
+    private final ByteBuffer outBuf = ByteBuffer.allocate(BinaryProtocol.MAX_FRAME); // under this
+    private final InboundRing tcpEvents = new InboundRing(INBOUND_CAPACITY, false); // TCP read loop -> FX
+    private final InboundRing tcpLatest = new InboundRing(INBOUND_CAPACITY, true);  // TCP read loop -> FX
+    private final InboundRing udpLatest = new InboundRing(INBOUND_CAPACITY, true);  // UDP loop -> FX
+    // entries of each ring queued before the peer's last RESTART
+    private volatile long eventsStale, tcpLatestStale, udpLatestStale;
+    private final InboundRing.Sink toController = this::deliver;
     private volatile boolean running = true;
+    private boolean binaryOut;  // guarded by this
+    private boolean binaryIn;   // read loop only
+    private boolean udpOut;     // guarded by this: peer listens on UDP, send POS there
+    private boolean udpAcked;   // guarded by this: ... and it confirmed they arrive
+    private boolean udpAckSent; // UDP receive thread only
 
     public NetLink(Socket socket, H2HGameController controller, int localId) {
+        this(socket, null, controller, localId);
+    }
+
+    /** @param udp side channel for positions, or null for TCP only (closed with this link) */
+    public NetLink(Socket socket, UdpChannel udp, H2HGameController controller, int localId) {
         this.socket = socket;
         this.controller = controller;
         this.localId = localId;
+        this.binaryAllowed = !"text".equalsIgnoreCase(System.getProperty("rb.net", "binary"));
+        this.udp = binaryAllowed ? udp : null;
+        if (udp != null && this.udp == null) udp.close();
         try {
-            this.in = new BufferedReader(
-                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
-            this.out = new PrintWriter(
-                    new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+            this.in = socket.getInputStream();
+            socket.setTcpNoDelay(true);
+            this.out = new BufferedOutputStream(socket.getOutputStream(), OUT_BUFFER);
         } catch (IOException e) {
             throw new RuntimeException("NetLink IO init failed: " + e.getMessage(), e);
         }
+        if (!binaryAllowed) sendRaw("HELLO text");
+        else if (this.udp == null) sendRaw("HELLO " + BinaryProtocol.VERSION);
+        else sendRaw("HELLO " + BinaryProtocol.VERSION + " " + this.udp.localPort());
+        flush();
+    }
+
+    /** True once this side writes binary frames (the peer agreed on the version). */
+    public synchronized boolean isBinary() {
+        return binaryOut;
     }
 
+    // ===== send =====
 
-    /** Low-level helper used by all send* methods. */
+    /** Sends everything buffered so far in one write. */
+    public synchronized void flush() {
+        if (!running) return;
+        try {
+            out.flush();
+        } catch (IOException e) {
+            close();
+        }
+    }
+
+    /** Buffers a text line (handshake, fallback). */
     private synchronized void sendRaw(String line) {
         if (!running) return;
-        out.println(line);
-        // out.flush(); // PrintWriter with auto-flush on println, but OK to leave as is
+        try {
+            out.write(line.getBytes(StandardCharsets.UTF_8));
+            out.write('\n');
+        } catch (IOException e) {
+            close();
+        }
+    }
+
+    /** Buffers the frame encoded in {@link #outBuf}. Caller holds the lock. */
+    private void sendFrame() {
+        if (!running) return;
+        try {
+            out.write(outBuf.array(), 0, outBuf.position());
+        } catch (IOException e) {
+            close();
+        }
+    }
+
+    /** True once positions travel over UDP only (the peer confirmed it receives them). */
+    public synchronized boolean isUdpActive() {
+        return udpAcked;
     }
 
-    public void sendPosition(int id, double x, double y, double vx, double vy) {
-        sendRaw("POS " + id + " " + x + " " + y + " " + vx + " " + vy);
+    public synchronized void sendPosition(int id, double x, double y, double vx, double vy) {
+        if (!binaryOut) { sendRaw("POS " + id + " " + x + " " + y + " " + vx + " " + vy); return; }
+        BinaryProtocol.pos(outBuf.clear(), id, x, y, vx, vy);
+        sendLatest();
     }
 
-    public void sendShot(int id, double x, double y) {
-        sendRaw("SHOT " + id + " " + x + " " + y);
+    /**
+     * Client -> host: the newest inputs of the local ship, oldest first, ending at
+     * {@code newestSeq}. Repeating the unacknowledged ones makes single losses harmless.
+     */
+    public synchronized void sendInput(int rttTicks, int newestSeq, byte[] inputs, int count) {
+        if (!binaryOut) {
+            StringBuilder line = new StringBuilder("INPUT ").append(rttTicks).append(' ').append(newestSeq);
+            for (int i = 0; i < count; i++) line.append(' ').append(inputs[i]);
+            sendRaw(line.toString());
+            return;
+        }
+        BinaryProtocol.input(outBuf.clear(), rttTicks, newestSeq, inputs, count);
+        sendLatest();
     }
 
-    public void sendHit(int targetId) {
-        sendRaw("HIT " + targetId);
+    /** Host -> client: where ship {@code id} is after the host applied input {@code ackSeq}. */
+    public synchronized void sendState(int id, int ackSeq, double x, double y, double vx) {
+        if (!binaryOut) { sendRaw("STATE " + id + " " + ackSeq + " " + x + " " + y + " " + vx); return; }
+        BinaryProtocol.state(outBuf.clear(), id, ackSeq, x, y, vx);
+        sendLatest();
+    }
+
+    /**
+     * Sends the frame in {@link #outBuf} where only the newest copy matters: as a datagram,
+     * plus over TCP until UDP is confirmed. Caller holds the lock.
+     */
+    private void sendLatest() {
+        if (udpOut) {
+            udp.beginSend().put(outBuf.array(), 0, outBuf.position());
+            try {
+                udp.send();
+            } catch (IOException e) {
+                // e.g. ICMP port unreachable; TCP still carries everything that matters
+                System.err.println("[Net] UDP send failed, back on TCP: " + e.getMessage());
+                udpOut = udpAcked = false;
+            }
+            if (udpAcked) return;
+        }
+        sendFrame();
+    }
+
+    public synchronized void sendShot(int id, double x, double y) {
+        if (!binaryOut) { sendRaw("SHOT " + id + " " + x + " " + y); return; }
+        BinaryProtocol.shot(outBuf.clear(), id, x, y);
+        sendFrame();
+    }
+
+    public synchronized void sendHit(int targetId) {
+        if (!binaryOut) { sendRaw("HIT " + targetId); return; }
+        BinaryProtocol.hit(outBuf.clear(), targetId);
+        sendFrame();
     }
 
     /** Host uses this to broadcast timer to client. */
-    public void sendTime(double secondsLeft) {
-        sendRaw("TIME " + secondsLeft);
+    public synchronized void sendTime(double secondsLeft) {
+        if (!binaryOut) { sendRaw("TIME " + secondsLeft); return; }
+        BinaryProtocol.time(outBuf.clear(), secondsLeft);
+        sendFrame();
+    }
+
+    public synchronized void sendRestart() {
+        if (!binaryOut) sendRaw("RESTART");
+        else {
+            BinaryProtocol.simple(outBuf.clear(), BinaryProtocol.RESTART);
+            sendFrame();
+        }
+        flush();
+    }
+
+    public synchronized void sendExit() {
+        if (!binaryOut) sendRaw("EXIT");
+        else {
+            BinaryProtocol.simple(outBuf.clear(), BinaryProtocol.EXIT);
+            sendFrame();
+        }
+        flush();
+    }
+
+    /** Tells the peer its datagrams arrive. */
+    private synchronized void sendUdpOk() {
+        if (!binaryOut) sendRaw("UDPOK");
+        else {
+            BinaryProtocol.simple(outBuf.clear(), BinaryProtocol.UDP_OK);
+            sendFrame();
+        }
+        flush();
     }
 
-    public void sendRestart() {
-        sendRaw("RESTART");
+    private synchronized void onUdpOk() {
+        if (udpOut && !udpAcked) {
+            udpAcked = true;
+            System.out.println("[Net] positions now over UDP");
+        }
+    }
+
+    // ===== delivery (FX thread) =====
+
+    /** Applies everything received since the last call to the controller, in arrival order per channel. */
+    public void drainInbound() {
+        tcpEvents.drain(eventsStale, toController);
+        tcpLatest.drain(tcpLatestStale, toController);
+        udpLatest.drain(udpLatestStale, toController);
+    }
+
+    /** Earlier queued messages belong to the old round; the restart itself is not queued. */
+    private void peerRestarted() {
+        eventsStale = tcpEvents.end();
+        tcpLatestStale = tcpLatest.end();
+        udpLatestStale = udpLatest.end(); // a datagram still in flight may land later; the next one overrides it
+        controller.remoteRestart();
+    }
+
+    private void deliver(byte kind, int id, double a, double b, double c, double d) {
+        switch (kind) {
+            case BinaryProtocol.POS:
+                controller.onRemotePosition(id, a, b, c, d);
+                break;
+            case BinaryProtocol.SHOT:
+                controller.onRemoteShot(id, a, b);
+                break;
+            case BinaryProtocol.HIT:
+                controller.onRemoteHit(id);
+                break;
+            case BinaryProtocol.TIME:
+                controller.onRemoteTime(a);
+                break;
+            case BinaryProtocol.INPUT:
+                controller.onRemoteInput(id, (int) a, (int) b);
+                break;
+            case BinaryProtocol.STATE:
+                controller.onRemoteState((int) d, id, a, b, c);
+                break;
+            default:
+                break;
+        }
     }
 
-    public void sendExit() {
-        sendRaw("EXIT");
+    /** Queues a SHOT/HIT/TIME; those must not be lost, so a full queue breaks the link. */
+    private void queueEvent(byte kind, int id, double a, double b) {
+        if (!tcpEvents.offer(kind, id, a, b, 0, 0)) {
+            System.err.println("[Net] inbound event queue full, closing the link");
+            close();
+        }
     }
 
-    // ===== receive loop =====
+    // ===== receive loops =====
 
     @Override
     public void run() {
         try {
-            String line;
-            while (running && (line = in.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
-
-                String[] tok = line.split("\\s+");
-                String cmd = tok[0];
-
-                switch (cmd) {
-                    case "POS": { // POS <id> <x> <y> <vx> <vy>
-                        if (tok.length >= 6) {
-                            int id = parseInt(tok[1], -1);
-                            double x = parseDouble(tok[2], 0);
-                            double y = parseDouble(tok[3], 0);
-                            double vx = parseDouble(tok[4], 0);
-                            double vy = parseDouble(tok[5], 0);
-                            Platform.runLater(() -> controller.onRemotePosition(id, x, y, vx, vy));
-                        }
-                        break;
-                    }
-                    case "SHOT": { // SHOT <id> <x> <y>
-                        if (tok.length >= 4) {
-                            int id = parseInt(tok[1], -1);
-                            double x = parseDouble(tok[2], 0);
-                            double y = parseDouble(tok[3], 0);
-                            Platform.runLater(() -> controller.onRemoteShot(id, x, y));
-                        }
-                        break;
-                    }
-                    case "HIT": { // HIT <targetId>
-                        if (tok.length >= 2) {
-                            int target = parseInt(tok[1], -1);
-                            Platform.runLater(() -> controller.onRemoteHit(target));
-                        }
-                        break;
-                    }
-                    case "TIME": { // TIME <secondsLeft>
-                        if (tok.length >= 2) {
-                            double secs = parseDouble(tok[1], 0);
-                            Platform.runLater(() -> controller.onRemoteTime(secs));
-                        }
-                        break;
-                    }
-                    case "RESTART": {
-                        Platform.runLater(controller::remoteRestart);
-                        break;
-                    }
-                    case "EXIT": {
-                        Platform.runLater(controller::remoteExit);
-                        close();
-                        break;
-                    }
-                    default:
-                        // ignore unknown lines
+            byte[] buf = inBuf.array();
+            while (running) {
+                int n = in.read(buf, inBuf.position(), inBuf.remaining());
+                if (n < 0) break;
+                inBuf.position(inBuf.position() + n);
+                inBuf.flip();
+                while (running && (binaryIn ? readFrame() : readLine())) { /* drain */ }
+                inBuf.compact();
+                if (!inBuf.hasRemaining()) {
+                    System.err.println("[Net] oversized message, dropping connection");
+                    break;
                 }
             }
         } catch (IOException ignored) {
@@ -141,6 +323,239 @@ public class NetLink implements Runnable {
         }
     }
 
+    /** Handles one complete binary frame from {@link #inBuf}; false if it is not all here yet. */
+    private boolean readFrame() {
+        if (inBuf.remaining() < 1) return false;
+        int start = inBuf.position();
+        int len = inBuf.get(start) & 0xFF;
+        if (inBuf.remaining() < 1 + len) return false;
+        inBuf.position(start + 1);
+        int end = start + 1 + len;
+        if (len > 0) dispatch(tcpLatest, inBuf, inBuf.get(), len - 1);
+        inBuf.position(end); // skips fields of newer/unknown opcodes
+        return true;
+    }
+
+    /** Datagram loop: one frame per datagram, stale ones already dropped by the channel. */
+    private void runUdp() {
+        try {
+            while (running) {
+                ByteBuffer b = udp.receive();
+                if (b == null) continue;
+                if (!udpAckSent) {
+                    udpAckSent = true;
+                    sendUdpOk();
+                }
+                int len = b.get() & 0xFF;
+                if (len == 0 || b.remaining() < len) continue;
+                byte opcode = b.get();
+                if (opcode == BinaryProtocol.POS || opcode == BinaryProtocol.INPUT || opcode == BinaryProtocol.STATE) {
+                    dispatch(udpLatest, b, opcode, len - 1);
+                }
+            }
+        } catch (IOException e) {
+            if (running && !(e instanceof SocketException)) {
+                System.err.println("[Net] UDP receive stopped: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reads the fields of one frame from {@code b} (positioned after the opcode).
+     * @param latest lossy ring of the calling thread, for POS/INPUT/STATE
+     */
+    private void dispatch(InboundRing latest, ByteBuffer b, byte opcode, int fieldBytes) {
+        switch (opcode) {
+            case BinaryProtocol.POS: {
+                if (fieldBytes < 9) return;
+                int id = b.get() & 0xFF;
+                double x = BinaryProtocol.dequantize(b.getShort());
+                double y = BinaryProtocol.dequantize(b.getShort());
+                double vx = BinaryProtocol.dequantize(b.getShort());
+                double vy = BinaryProtocol.dequantize(b.getShort());
+                latest.offer(BinaryProtocol.POS, id, x, y, vx, vy);
+                break;
+            }
+            case BinaryProtocol.SHOT: {
+                if (fieldBytes < 5) return;
+                int id = b.get() & 0xFF;
+                double x = BinaryProtocol.dequantize(b.getShort());
+                double y = BinaryProtocol.dequantize(b.getShort());
+                queueEvent(BinaryProtocol.SHOT, id, x, y);
+                break;
+            }
+            case BinaryProtocol.HIT: {
+                if (fieldBytes < 1) return;
+                int target = b.get() & 0xFF;
+                queueEvent(BinaryProtocol.HIT, target, 0, 0);
+                break;
+            }
+            case BinaryProtocol.TIME: {
+                if (fieldBytes < 4) return;
+                double secs = b.getInt() / 1000.0;
+                queueEvent(BinaryProtocol.TIME, 0, secs, 0);
+                break;
+            }
+            case BinaryProtocol.RESTART:
+                peerRestarted();
+                break;
+            case BinaryProtocol.EXIT:
+                controller.remoteExit();
+                close();
+                break;
+            case BinaryProtocol.INPUT: {
+                if (fieldBytes < 6) return;
+                int rtt = b.get() & 0xFF;
+                int newest = b.getInt();
+                int count = Math.min(b.get() & 0xFF, fieldBytes - 6);
+                for (int i = 0; i < count; i++) {
+                    latest.offer(BinaryProtocol.INPUT, newest - count + 1 + i, b.get(), rtt, 0, 0);
+                }
+                break;
+            }
+            case BinaryProtocol.STATE: {
+                if (fieldBytes < 11) return;
+                int id = b.get() & 0xFF;
+                int ack = b.getInt();
+                double x = BinaryProtocol.dequantize(b.getShort());
+                double y = BinaryProtocol.dequantize(b.getShort());
+                double vx = BinaryProtocol.dequantize(b.getShort());
+                latest.offer(BinaryProtocol.STATE, ack, x, y, vx, id);
+                break;
+            }
+            case BinaryProtocol.UDP_OK:
+                onUdpOk();
+                break;
+            default:
+                // ignore unknown opcodes
+        }
+    }
+
+    /** Handles one complete text line from {@link #inBuf}; false if it is not all here yet. */
+    private boolean readLine() {
+        int start = inBuf.position(), limit = inBuf.limit();
+        int nl = -1;
+        for (int i = start; i < limit; i++) {
+            if (inBuf.get(i) == '\n') { nl = i; break; }
+        }
+        if (nl < 0) return false;
+        String line = new String(inBuf.array(), start, nl - start, StandardCharsets.UTF_8).trim();
+        inBuf.position(nl + 1);
+        if (!line.isEmpty()) handleLine(line);
+        return true;
+    }
+
+    private void handleLine(String line) {
+        String[] tok = line.split("\\s+");
+        String cmd = tok[0];
+
+        switch (cmd) {
+            case "HELLO": { // HELLO <version> [udpPort]
+                if (binaryAllowed && tok.length >= 2 && parseInt(tok[1], -1) == BinaryProtocol.VERSION) {
+                    int udpPort = tok.length >= 3 ? parseInt(tok[2], 0) : 0;
+                    synchronized (this) {
+                        sendRaw("BIN");
+                        flush();
+                        binaryOut = true;
+                        if (udp != null && udpPort > 0) startUdp(udpPort);
+                    }
+                } else if (binaryAllowed) {
+                    System.out.println("[Net] peer speaks '" + line + "', staying on text");
+                }
+                break;
+            }
+            case "BIN": {
+                binaryIn = true;
+                break;
+            }
+            case "UDPOK": {
+                onUdpOk();
+                break;
+            }
+            case "INPUT": { // INPUT <rttTicks> <newestSeq> <input>...
+                if (tok.length >= 3) {
+                    int rtt = parseInt(tok[1], 0);
+                    int newest = parseInt(tok[2], 0);
+                    int count = tok.length - 3;
+                    for (int i = 0; i < count; i++) {
+                        tcpLatest.offer(BinaryProtocol.INPUT, newest - count + 1 + i, parseInt(tok[3 + i], 0), rtt, 0, 0);
+                    }
+                }
+                break;
+            }
+            case "STATE": { // STATE <id> <ackSeq> <x> <y> <vx>
+                if (tok.length >= 6) {
+                    int id = parseInt(tok[1], -1);
+                    int ack = parseInt(tok[2], 0);
+                    double x = parseDouble(tok[3], 0);
+                    double y = parseDouble(tok[4], 0);
+                    double vx = parseDouble(tok[5], 0);
+                    tcpLatest.offer(BinaryProtocol.STATE, ack, x, y, vx, id);
+                }
+                break;
+            }
+            case "POS": { // POS <id> <x> <y> <vx> <vy>
+                if (tok.length >= 6) {
+                    int id = parseInt(tok[1], -1);
+                    double x = parseDouble(tok[2], 0);
+                    double y = parseDouble(tok[3], 0);
+                    double vx = parseDouble(tok[4], 0);
+                    double vy = parseDouble(tok[5], 0);
+                    tcpLatest.offer(BinaryProtocol.POS, id, x, y, vx, vy);
+                }
+                break;
+            }
+            case "SHOT": { // SHOT <id> <x> <y>
+                if (tok.length >= 4) {
+                    int id = parseInt(tok[1], -1);
+                    double x = parseDouble(tok[2], 0);
+                    double y = parseDouble(tok[3], 0);
+                    queueEvent(BinaryProtocol.SHOT, id, x, y);
+                }
+                break;
+            }
+            case "HIT": { // HIT <targetId>
+                if (tok.length >= 2) {
+                    int target = parseInt(tok[1], -1);
+                    queueEvent(BinaryProtocol.HIT, target, 0, 0);
+                }
+                break;
+            }
+            case "TIME": { // TIME <secondsLeft>
+                if (tok.length >= 2) {
+                    double secs = parseDouble(tok[1], 0);
+                    queueEvent(BinaryProtocol.TIME, 0, secs, 0);
+                }
+                break;
+            }
+            case "RESTART": {
+                peerRestarted();
+                break;
+            }
+            case "EXIT": {
+                controller.remoteExit();
+                close();
+                break;
+            }
+            default:
+                // ignore unknown lines
+        }
+    }
+
+    /** Fixes the peer's UDP address and starts listening. Caller holds the lock. */
+    private void startUdp(int peerPort) {
+        try {
+            udp.connect(socket.getInetAddress(), peerPort);
+        } catch (IOException e) {
+            System.err.println("[Net] UDP unavailable, staying on TCP: " + e.getMessage());
+            return;
+        }
+        udpOut = true;
+        Thread t = new Thread(this::runUdp, Thread.currentThread().getName() + "-udp");
+        t.setDaemon(true);
+        t.start();
+    }
+
     // ===== utils =====
 
     private static int parseInt(String s, int def) {
@@ -154,5 +569,6 @@ public class NetLink implements Runnable {
     public void close() {
         running = false;
         try { socket.close(); } catch (Exception ignored) {}
+        if (udp != null) udp.close();
     }
 }
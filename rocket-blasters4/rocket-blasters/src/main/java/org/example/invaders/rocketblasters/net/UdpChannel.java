@@ -0,0 +1,110 @@
+package org.example.invaders.rocketblasters.net;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * Unreliable side channel of a {@link NetLink}, used for messages where only the newest
+ * one matters (POS, INPUT, STATE).
+ * - Each datagram is a 32-bit sequence number followed by one binary frame.
+ * - Every opcode is its own stream: {@link #receive} drops a datagram that is not newer
+ *   than the last accepted one with the same opcode, so late and reordered packets never
+ *   move anything backwards, while a POS and a STATE sent back to back may arrive in
+ *   either order. Lost ones are simply gone.
+ * - Buffers are preallocated; sending and receiving do not allocate.
+ * One sender thread (under the NetLink lock) and one receiver thread.
+ */
+public final class UdpChannel implements Closeable {
+
+    private static final int MAX_DATAGRAM = 4 + BinaryProtocol.MAX_FRAME;
+
+    private final DatagramChannel channel;
+    private final ByteBuffer out = ByteBuffer.allocateDirect(MAX_DATAGRAM);
+    private final ByteBuffer in = ByteBuffer.allocateDirect(MAX_DATAGRAM);
+    private int sendSeq;
+    private final int[] lastSeq = new int[256];          // by opcode
+    private final boolean[] received = new boolean[256];
+    private long dropped;
+
+    private UdpChannel(DatagramChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Binds next to an established TCP connection (same local address).
+     * @param port local UDP port, or 0 for any; a taken port falls back to any
+     */
+    public static UdpChannel open(Socket tcp, int port) throws IOException {
+        DatagramChannel ch = DatagramChannel.open();
+        try {
+            try {
+                ch.bind(new InetSocketAddress(tcp.getLocalAddress(), port));
+            } catch (IOException e) {
+                if (port == 0) throw e;
+                ch.bind(new InetSocketAddress(tcp.getLocalAddress(), 0));
+            }
+        } catch (IOException e) {
+            ch.close();
+            throw e;
+        }
+        return new UdpChannel(ch);
+    }
+
+    public int localPort() {
+        return channel.socket().getLocalPort();
+    }
+
+    /** Datagrams that arrived stale or out of order. */
+    public synchronized long dropped() {
+        return dropped;
+    }
+
+    /** Fixes the peer; must happen before the first send or receive. */
+    void connect(InetAddress peer, int port) throws IOException {
+        channel.connect(new InetSocketAddress(peer, port));
+    }
+
+    /** Clears the send buffer and writes the next sequence number; the caller appends a frame. */
+    ByteBuffer beginSend() {
+        out.clear();
+        out.putInt(++sendSeq);
+        return out;
+    }
+
+    void send() throws IOException {
+        out.flip();
+        channel.write(out);
+    }
+
+    /**
+     * Blocks for the next datagram.
+     * @return the buffer positioned at its frame, or null if it was stale/malformed
+     */
+    ByteBuffer receive() throws IOException {
+        in.clear();
+        if (channel.read(in) < 0) throw new IOException("channel closed");
+        in.flip();
+        if (in.remaining() < 6) return null;
+        int seq = in.getInt();
+        int op = in.get(in.position() + 1) & 0xFF; // after the frame's length byte
+        synchronized (this) {
+            if (received[op] && seq - lastSeq[op] <= 0) { // wraps fine
+                dropped++;
+                return null;
+            }
+            received[op] = true;
+            lastSeq[op] = seq;
+        }
+        return in;
+    }
+
+    @Override
+    public void close() {
+        try { channel.close(); } catch (IOException ignored) {}
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.invaders.rocketblasters.render;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Paint;
+
+/**
+ * Draws onto a Canvas, touching fill/stroke/line width only when they actually change.
+ * - Optionally records every drawn area into {@link DirtyRects} (text clears the whole layer
+ *   next frame, since its bounds are not measured).
+ * - Call {@link #resync} if other code changed the context's paints directly.
+ */
+public final class CanvasRenderer implements Renderer {
+
+    private final GraphicsContext g;
+    private final DirtyRects dirty; // may be null
+
+    private Paint fill, stroke;
+    private double lineWidth = -1;
+
+    public CanvasRenderer(GraphicsContext g, DirtyRects dirty) {
+        this.g = g;
+        this.dirty = dirty;
+    }
+
+    public CanvasRenderer(GraphicsContext g) {
+        this(g, null);
+    }
+
+    /** Forgets the cached state; the next call sets it again. */
+    public void resync() {
+        fill = null;
+        stroke = null;
+        lineWidth = -1;
+    }
+
+    @Override public void fillRect(Paint p, double x, double y, double w, double h) {
+        fill(p);
+        g.fillRect(x, y, w, h);
+        mark(x, y, w, h);
+    }
+
+    @Override public void fillOval(Paint p, double x, double y, double w, double h) {
+        fill(p);
+        g.fillOval(x, y, w, h);
+        mark(x, y, w, h);
+    }
+
+    @Override public void strokeOval(Paint p, double lw, double x, double y, double w, double h) {
+        if (p != stroke) { g.setStroke(p); stroke = p; }
+        if (lw != lineWidth) { g.setLineWidth(lw); lineWidth = lw; }
+        g.strokeOval(x, y, w, h);
+        mark(x - lw, y - lw, w + lw * 2, h + lw * 2);
+    }
+
+    @Override public void drawImage(Image image, double x, double y, double w, double h) {
+        g.drawImage(image, x, y, w, h);
+        mark(x, y, w, h);
+    }
+
+    @Override public void drawSubImage(Image image, double sx, double sy, double sw, double sh,
+                                       double x, double y, double w, double h) {
+        g.drawImage(image, sx, sy, sw, sh, x, y, w, h);
+        mark(x, y, w, h);
+    }
+
+    @Override public void fillText(Paint p, String text, double x, double y) {
+        fill(p);
+        g.fillText(text, x, y);
+        if (dirty != null) dirty.invalidateAll();
+    }
+
+    private void fill(Paint p) {
+        if (p != fill) { g.setFill(p); fill = p; }
+    }
+
+    private void mark(double x, double y, double w, double h) {
+        if (dirty != null) dirty.add(x, y, w, h);
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.invaders.rocketblasters.render;
+
+import javafx.scene.image.Image;
+import javafx.scene.paint.Paint;
+
+/**
+ * Counts draw calls and state changes (fill, stroke, image switches), optionally passing
+ * every call on to another renderer. Without a delegate it draws nothing, so a frame's
+ * cost can be measured without a Canvas.
+ */
+public final class CountingRenderer implements Renderer {
+
+    private final Renderer delegate; // may be null
+
+    private int draws, images, stateChanges;
+    private Object fill, stroke, image;
+
+    public CountingRenderer(Renderer delegate) {
+        this.delegate = delegate;
+    }
+
+    public CountingRenderer() {
+        this(null);
+    }
+
+    public int draws() { return draws; }
+    public int images() { return images; }
+    public int stateChanges() { return stateChanges; }
+
+    /** Zeroes the counters (call once per frame). */
+    public void reset() {
+        draws = images = stateChanges = 0;
+        fill = stroke = image = null;
+    }
+
+    /** e.g. {@code draws=812 images=640 state=5} */
+    public String summary() {
+        return "draws=" + draws + " images=" + images + " state=" + stateChanges;
+    }
+
+    @Override public void fillRect(Paint p, double x, double y, double w, double h) {
+        fill(p);
+        if (delegate != null) delegate.fillRect(p, x, y, w, h);
+    }
+
+    @Override public void fillOval(Paint p, double x, double y, double w, double h) {
+        fill(p);
+        if (delegate != null) delegate.fillOval(p, x, y, w, h);
+    }
+
+    @Override public void strokeOval(Paint p, double lineWidth, double x, double y, double w, double h) {
+        draws++;
+        if (p != stroke) { stroke = p; stateChanges++; }
+        if (delegate != null) delegate.strokeOval(p, lineWidth, x, y, w, h);
+    }
+
+    @Override public void drawImage(Image img, double x, double y, double w, double h) {
+        draws++;
+        images++;
+        if (img != image) { image = img; stateChanges++; }
+        if (delegate != null) delegate.drawImage(img, x, y, w, h);
+    }
+
+    @Override public void drawSubImage(Image img, double sx, double sy, double sw, double sh,
+                                       double x, double y, double w, double h) {
+        draws++;
+        images++;
+        if (img != image) { image = img; stateChanges++; }
+        if (delegate != null) delegate.drawSubImage(img, sx, sy, sw, sh, x, y, w, h);
+    }
+
+    @Override public void fillText(Paint p, String text, double x, double y) {
+        fill(p);
+        if (delegate != null) delegate.fillText(p, text, x, y);
+    }
+
+    private void fill(Paint p) {
+        draws++;
+        if (p != fill) { fill = p; stateChanges++; }
+    }
+}
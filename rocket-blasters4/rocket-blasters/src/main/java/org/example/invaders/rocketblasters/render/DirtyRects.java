@@ -0,0 +1,54 @@
+package org.example.invaders.rocketblasters.render;
+
+import javafx.scene.canvas.GraphicsContext;
+
+/**
+ * Remembers what was drawn on a transparent layer so the next frame only clears those
+ * areas instead of the whole surface.
+ * - Falls back to one full clear when the scene gets busy (too many rects, or their
+ *   total area passes half the layer) or after {@link #invalidateAll}.
+ * - Storage is a fixed primitive array; no allocation per frame.
+ */
+public final class DirtyRects {
+
+    private static final double PAD = 2;               // antialiasing spill around shapes
+    private static final double FULL_CLEAR_FRACTION = 0.5;
+
+    private final double[] rects; // x, y, w, h per rect
+    private int count;
+    private double area;
+    private boolean full = true;  // first frame clears everything
+
+    public DirtyRects(int maxRects) {
+        rects = new double[Math.max(1, maxRects) * 4];
+    }
+
+    /** Records an area drawn this frame. */
+    public void add(double x, double y, double w, double h) {
+        if (full) return;
+        if (count * 4 == rects.length) { full = true; return; }
+        int i = count++ * 4;
+        rects[i] = x - PAD; rects[i + 1] = y - PAD;
+        rects[i + 2] = w + PAD * 2; rects[i + 3] = h + PAD * 2;
+        area += rects[i + 2] * rects[i + 3];
+    }
+
+    /** Next {@link #clear} wipes the whole layer (resize, restart, overlay text, ...). */
+    public void invalidateAll() {
+        full = true;
+    }
+
+    /** Clears what the previous frame drew and starts recording the next one. */
+    public void clear(GraphicsContext g, double width, double height) {
+        if (full || area > width * height * FULL_CLEAR_FRACTION) {
+            g.clearRect(0, 0, width, height);
+        } else {
+            for (int i = 0, n = count * 4; i < n; i += 4) {
+                g.clearRect(rects[i], rects[i + 1], rects[i + 2], rects[i + 3]);
+            }
+        }
+        count = 0;
+        area = 0;
+        full = false;
+    }
+}
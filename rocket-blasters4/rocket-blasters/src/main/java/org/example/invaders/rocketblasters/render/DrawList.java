@@ -0,0 +1,171 @@
+package org.example.invaders.rocketblasters.render;
+
+import javafx.scene.image.Image;
+import javafx.scene.paint.Paint;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/**
+ * A frame's draw calls recorded into primitive arrays, then replayed grouped by state.
+ * - Commands are ordered by layer, then kind (fill/stroke/image/...), then paint or image,
+ *   so e.g. all bullets are one run under one fill and all enemies one run of one image.
+ * - The sort is stable: commands sharing a layer and state keep their recorded order.
+ *   Things that must overlap in a given order belong on different layers.
+ * - Paints and images are interned by identity into small ids kept across frames; nothing
+ *   is allocated per command once the arrays have grown to the frame size.
+ * FX thread only (or any single thread; it never touches a Canvas itself).
+ */
+public final class DrawList implements Renderer {
+
+    private static final int FILL_RECT = 0, FILL_OVAL = 1, STROKE_OVAL = 2, IMAGE = 3, SUB_IMAGE = 4, TEXT = 5;
+
+    // sort key: layer (4 bits) | kind (3 bits) | state id (15 bits), sorted in two 11-bit passes
+    private static final int STATE_BITS = 15, KIND_BITS = 3, LAYER_BITS = 4;
+    private static final int MAX_LAYER = (1 << LAYER_BITS) - 1;
+    private static final int STATE_MASK = (1 << STATE_BITS) - 1;
+    private static final int RADIX_BITS = 11, RADIX = 1 << RADIX_BITS, RADIX_MASK = RADIX - 1;
+    private static final int MAX_STATES = 4096; // interning restarts past this (between frames)
+    private static final int STRIDE = 8;
+
+    // ===== Commands (index-addressed) =====
+    private int[] key;
+    private int[] state;      // index into states
+    private double[] geom;    // x, y, w, h + lineWidth or source rect, per command
+    private String[] text;
+    private int size;
+
+    // ===== Sort scratch =====
+    private int[] order, scratch;
+    private final int[] counts = new int[RADIX];
+
+    // ===== Interned paints / images =====
+    private final IdentityHashMap<Object, Integer> ids = new IdentityHashMap<>();
+    private Object[] states = new Object[64];
+
+    private int layer;
+
+    public DrawList(int capacity) {
+        int cap = Math.max(16, capacity);
+        key = new int[cap];
+        state = new int[cap];
+        geom = new double[cap * STRIDE];
+        text = new String[cap];
+        order = new int[cap];
+        scratch = new int[cap];
+    }
+
+    /** Layer for the following commands (0..15, drawn back to front). */
+    public void layer(int layer) {
+        this.layer = Math.max(0, Math.min(MAX_LAYER, layer));
+    }
+
+    /** Commands recorded since the last flush/reset. */
+    public int size() { return size; }
+
+    /** Drops the recorded commands without drawing them. */
+    public void reset() {
+        if (size > 0) Arrays.fill(text, 0, size, null);
+        size = 0;
+        layer = 0;
+        if (ids.size() > MAX_STATES) {
+            ids.clear();
+            Arrays.fill(states, null);
+        }
+    }
+
+    /** Replays everything recorded, sorted by layer and state, then resets. */
+    public void flush(Renderer out) {
+        sort();
+        for (int o = 0; o < size; o++) {
+            int i = order[o], gi = i * STRIDE;
+            double x = geom[gi], y = geom[gi + 1], w = geom[gi + 2], h = geom[gi + 3];
+            Object s = states[state[i]];
+            switch ((key[i] >>> STATE_BITS) & ((1 << KIND_BITS) - 1)) {
+                case FILL_RECT:   out.fillRect((Paint) s, x, y, w, h); break;
+                case FILL_OVAL:   out.fillOval((Paint) s, x, y, w, h); break;
+                case STROKE_OVAL: out.strokeOval((Paint) s, geom[gi + 4], x, y, w, h); break;
+                case IMAGE:       out.drawImage((Image) s, x, y, w, h); break;
+                case SUB_IMAGE:   out.drawSubImage((Image) s, geom[gi + 4], geom[gi + 5], geom[gi + 6], geom[gi + 7], x, y, w, h); break;
+                default:          out.fillText((Paint) s, text[i], x, y); break;
+            }
+        }
+        reset();
+    }
+
+    // ===== Renderer (recording) =====
+
+    @Override public void fillRect(Paint fill, double x, double y, double w, double h) {
+        add(FILL_RECT, fill, x, y, w, h, 0);
+    }
+
+    @Override public void fillOval(Paint fill, double x, double y, double w, double h) {
+        add(FILL_OVAL, fill, x, y, w, h, 0);
+    }
+
+    @Override public void strokeOval(Paint stroke, double lineWidth, double x, double y, double w, double h) {
+        add(STROKE_OVAL, stroke, x, y, w, h, lineWidth);
+    }
+
+    @Override public void drawImage(Image image, double x, double y, double w, double h) {
+        add(IMAGE, image, x, y, w, h, 0);
+    }
+
+    @Override public void drawSubImage(Image image, double sx, double sy, double sw, double sh,
+                                       double x, double y, double w, double h) {
+        int gi = add(SUB_IMAGE, image, x, y, w, h, sx) * STRIDE;
+        geom[gi + 5] = sy; geom[gi + 6] = sw; geom[gi + 7] = sh;
+    }
+
+    @Override public void fillText(Paint fill, String text, double x, double y) {
+        this.text[add(TEXT, fill, x, y, 0, 0, 0)] = text;
+    }
+
+    // ===== internals =====
+
+    private int add(int kind, Object s, double x, double y, double w, double h, double extra) {
+        if (size == key.length) grow();
+        int i = size++;
+        int id = intern(s);
+        state[i] = id;
+        key[i] = (layer << (STATE_BITS + KIND_BITS)) | (kind << STATE_BITS) | (id & STATE_MASK);
+        int gi = i * STRIDE;
+        geom[gi] = x; geom[gi + 1] = y; geom[gi + 2] = w; geom[gi + 3] = h; geom[gi + 4] = extra;
+        return i;
+    }
+
+    private int intern(Object s) {
+        Integer id = ids.get(s);
+        if (id != null) return id;
+        int next = ids.size();
+        if (next == states.length) states = Arrays.copyOf(states, next * 2);
+        states[next] = s;
+        ids.put(s, next);
+        return next;
+    }
+
+    /** Stable LSD radix sort of command indices by key (two passes, no allocation). */
+    private void sort() {
+        for (int i = 0; i < size; i++) order[i] = i;
+        for (int shift = 0; shift < 2 * RADIX_BITS; shift += RADIX_BITS) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < size; i++) counts[(key[order[i]] >>> shift) & RADIX_MASK]++;
+            for (int b = 0, sum = 0; b < RADIX; b++) { int c = counts[b]; counts[b] = sum; sum += c; }
+            for (int i = 0; i < size; i++) {
+                int idx = order[i];
+                scratch[counts[(key[idx] >>> shift) & RADIX_MASK]++] = idx;
+            }
+            int[] t = order; order = scratch; scratch = t;
+        }
+    }
+
+    private void grow() {
+        int cap = key.length * 2;
+        key = Arrays.copyOf(key, cap);
+        state = Arrays.copyOf(state, cap);
+        geom = Arrays.copyOf(geom, cap * STRIDE);
+        text = Arrays.copyOf(text, cap);
+        order = new int[cap];
+        scratch = new int[cap];
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.invaders.rocketblasters.render;
+
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+
+/**
+ * Enemy look (pulsing red halo + sprite rotated 180°) pre-rendered once into images,
+ * so drawing an enemy is a single drawImage with no save/rotate/restore or paint changes.
+ * - The halo pulse is quantized to {@link #PHASES} frames; all enemies share a phase per frame.
+ * - Each sprite frame gets its own set of phases (one frame for a still image).
+ * - Without a sprite it bakes the fallback look (crimson circle + halo) instead.
+ * - With halos off (low quality) there is a single phase and no halo.
+ * - Frames are rendered at {@link #OVERSAMPLE}x so they stay sharp on HiDPI screens.
+ * Build on the FX thread (it snapshots an offscreen Canvas).
+ */
+public final class EnemySpriteCache {
+
+    public static final int PHASES = 16;
+    private static final double OVERSAMPLE = 2.0;
+
+    private final Image[][] frames; // [sprite frame][phase]
+    private final double width, height;
+
+    /**
+     * @param sprites sprite frames drawn upright (they are rotated here), or null/empty for the fallback
+     * @param spriteW draw width of the sprite
+     * @param spriteH draw height of the sprite
+     * @param radius  collision radius (sizes the fallback circle and its halo)
+     * @param halos   bake the pulsing halo (else just the body)
+     */
+    public EnemySpriteCache(Image[] sprites, double spriteW, double spriteH, double radius, boolean halos) {
+        boolean fallback = sprites == null || sprites.length == 0;
+
+        // halo shape, same numbers the per-enemy code used
+        double baseR, ampR, baseA;
+        if (!fallback) {
+            baseR = Math.max(spriteW, spriteH) * 0.10;
+            ampR  = Math.max(spriteW, spriteH) * 0.20;
+            baseA = 0.12;
+        } else {
+            baseR = radius * 2.0;
+            ampR  = radius * 0.8;
+            baseA = 0.22;
+        }
+        double maxHalo = halos ? 2 * (baseR + ampR) : 0;
+        double bodyW = fallback ? radius * 2 : spriteW;
+        double bodyH = fallback ? radius * 2 : spriteH;
+        width = Math.ceil(Math.max(bodyW, maxHalo));
+        height = Math.ceil(Math.max(bodyH, maxHalo));
+
+        Canvas scratch = new Canvas(width * OVERSAMPLE, height * OVERSAMPLE);
+        GraphicsContext g = scratch.getGraphicsContext2D();
+        SnapshotParameters params = new SnapshotParameters();
+        params.setFill(Color.TRANSPARENT);
+        double cx = width / 2, cy = height / 2;
+
+        int count = fallback ? 1 : sprites.length;
+        int phases = halos ? PHASES : 1;
+        frames = new Image[count][phases];
+        for (int f = 0; f < count; f++) {
+            for (int p = 0; p < phases; p++) {
+                double pulse = halos ? p / (double) (PHASES - 1) : 0;
+                double haloR = baseR + ampR * pulse;
+
+                g.clearRect(0, 0, scratch.getWidth(), scratch.getHeight());
+                g.save();
+                g.scale(OVERSAMPLE, OVERSAMPLE);
+                if (halos) {
+                    g.setFill(Color.color(1.0, 0.2, 0.2, baseA + 0.18 * pulse));
+                    g.fillOval(cx - haloR, cy - haloR, haloR * 2, haloR * 2);
+                }
+                if (fallback) {
+                    g.setFill(Color.CRIMSON);
+                    g.fillOval(cx - radius, cy - radius, radius * 2, radius * 2);
+                } else {
+                    g.translate(cx, cy);
+                    g.rotate(180); // pointing downwards
+                    g.drawImage(sprites[f], -spriteW / 2, -spriteH / 2, spriteW, spriteH);
+                }
+                g.restore();
+
+                frames[f][p] = scratch.snapshot(params, null);
+            }
+        }
+    }
+
+    /** Still sprite (or null for the fallback look). */
+    public EnemySpriteCache(Image sprite, double spriteW, double spriteH, double radius, boolean halos) {
+        this(sprite == null ? null : new Image[]{sprite}, spriteW, spriteH, radius, halos);
+    }
+
+    /**
+     * @param spriteFrame index into the sprite frames (wraps)
+     * @param pulse       halo pulse, 0..1
+     */
+    public Image frame(int spriteFrame, double pulse) {
+        Image[] phases = frames[Math.floorMod(spriteFrame, frames.length)];
+        return phases[phaseIndex(pulse, phases.length)];
+    }
+
+    /** Baked frame by index (for packing into a {@link SpriteAtlas}). */
+    public Image image(int spriteFrame, int phase) {
+        return frames[spriteFrame][phase];
+    }
+
+    /** Quantizes a 0..1 pulse to one of {@code phases} frames. */
+    public static int phaseIndex(double pulse, int phases) {
+        return (int) Math.round(Math.max(0, Math.min(1, pulse)) * (phases - 1));
+    }
+
+    public int spriteFrames() { return frames.length; }
+    public int phases() { return frames[0].length; }
+
+    /** Draw size in px (the image itself is oversampled). */
+    public double width() { return width; }
+    public double height() { return height; }
+}
@@ -0,0 +1,199 @@
+package org.example.invaders.rocketblasters.render;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * An animation decoded once into still frames plus per-frame durations.
+ * - The frame to show is picked from a caller-supplied clock ({@link #indexAt}), e.g. sim
+ *   time, instead of JavaFX's hidden animated-image timer.
+ * - GIFs are decoded with ImageIO and composited like a browser would (frame offsets and
+ *   disposal methods), so every frame is a complete picture.
+ * - Frames can be shrunk to a maximum size while decoding (source art is often far bigger
+ *   than it is ever drawn), halving step by step so the result stays smooth.
+ * - Sprite sheets are cut with {@link #fromSheet}.
+ */
+public final class FrameStrip {
+
+    private static final String GIF_STREAM = "javax_imageio_gif_stream_1.0";
+    private static final String GIF_IMAGE = "javax_imageio_gif_image_1.0";
+    private static final double MIN_DELAY = 0.02;     // 0/1 centisecond delays are shown at ...
+    private static final double DEFAULT_DELAY = 0.10; // ... 100 ms, like browsers do
+
+    private final Image[] frames;
+    private final double[] ends; // cumulative end time of each frame
+    private final double duration;
+
+    /** @param delays seconds each frame stays up */
+    public FrameStrip(Image[] frames, double[] delays) {
+        if (frames.length == 0 || frames.length != delays.length) {
+            throw new IllegalArgumentException("need one delay per frame, at least one frame");
+        }
+        this.frames = frames.clone();
+        this.ends = new double[frames.length];
+        double t = 0;
+        for (int i = 0; i < frames.length; i++) {
+            t += delays[i] < MIN_DELAY ? DEFAULT_DELAY : delays[i];
+            ends[i] = t;
+        }
+        this.duration = t;
+    }
+
+    public static FrameStrip still(Image image) {
+        return new FrameStrip(new Image[]{image}, new double[]{DEFAULT_DELAY});
+    }
+
+    public int size() { return frames.length; }
+    public Image frame(int index) { return frames[index]; }
+    public Image[] frames() { return frames.clone(); }
+    public double duration() { return duration; }
+
+    /** Frame showing {@code seconds} into the (looping) animation. */
+    public int indexAt(double seconds) {
+        if (frames.length == 1) return 0;
+        double t = seconds % duration;
+        if (t < 0) t += duration;
+        int i = Arrays.binarySearch(ends, t);
+        i = i >= 0 ? i + 1 : -i - 1; // exactly on an end: the next frame
+        return Math.min(i, frames.length - 1);
+    }
+
+    /** Cuts {@code count} frames of {@code frameW x frameH}, row by row, from a sheet. */
+    public static FrameStrip fromSheet(Image sheet, int frameW, int frameH, int count, double fps) {
+        int cols = Math.max(1, (int) (sheet.getWidth() / frameW));
+        Image[] frames = new Image[count];
+        double[] delays = new double[count];
+        for (int i = 0; i < count; i++) {
+            frames[i] = new WritableImage(sheet.getPixelReader(), (i % cols) * frameW, (i / cols) * frameH, frameW, frameH);
+            delays[i] = 1.0 / fps;
+        }
+        return new FrameStrip(frames, delays);
+    }
+
+    /** Decodes every frame of a GIF at full size (the stream is left open). */
+    public static FrameStrip decodeGif(InputStream in) throws IOException {
+        return decodeGif(in, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    /** Decodes every frame of a GIF, shrunk to fit {@code maxW x maxH} (the stream is left open). */
+    public static FrameStrip decodeGif(InputStream in, int maxW, int maxH) throws IOException {
+        Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName("gif");
+        if (!readers.hasNext()) throw new IOException("no GIF reader available");
+        ImageReader reader = readers.next();
+        try (ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            reader.setInput(iis, false);
+            int count = reader.getNumImages(true);
+            if (count <= 0) throw new IOException("GIF has no frames");
+
+            int w = 0, h = 0;
+            IIOMetadata stream = reader.getStreamMetadata();
+            Node screen = stream == null ? null : child(stream.getAsTree(GIF_STREAM), "LogicalScreenDescriptor");
+            if (screen != null) {
+                w = intAttr(screen, "logicalScreenWidth", 0);
+                h = intAttr(screen, "logicalScreenHeight", 0);
+            }
+            if (w <= 0 || h <= 0) {
+                w = reader.getWidth(0);
+                h = reader.getHeight(0);
+            }
+
+            double fit = Math.min(1.0, Math.min(maxW / (double) w, maxH / (double) h));
+            int outW = Math.max(1, (int) Math.round(w * fit)), outH = Math.max(1, (int) Math.round(h * fit));
+
+            BufferedImage canvas = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = canvas.createGraphics();
+            int[] argb = new int[outW * outH];
+            Image[] frames = new Image[count];
+            double[] delays = new double[count];
+            try {
+                for (int i = 0; i < count; i++) {
+                    BufferedImage raw = reader.read(i);
+                    Node meta = reader.getImageMetadata(i).getAsTree(GIF_IMAGE);
+                    Node desc = child(meta, "ImageDescriptor");
+                    Node gce = child(meta, "GraphicControlExtension");
+                    int x = desc == null ? 0 : intAttr(desc, "imageLeftPosition", 0);
+                    int y = desc == null ? 0 : intAttr(desc, "imageTopPosition", 0);
+                    String disposal = gce == null ? "none" : attr(gce, "disposalMethod", "none");
+                    delays[i] = gce == null ? 0 : intAttr(gce, "delayTime", 0) / 100.0;
+
+                    int[] previous = "restoreToPrevious".equals(disposal) ? canvas.getRGB(0, 0, w, h, null, 0, w) : null;
+                    g.drawImage(raw, x, y, null);
+
+                    shrink(canvas, outW, outH).getRGB(0, 0, outW, outH, argb, 0, outW);
+                    WritableImage frame = new WritableImage(outW, outH);
+                    frame.getPixelWriter().setPixels(0, 0, outW, outH, PixelFormat.getIntArgbInstance(), argb, 0, outW);
+                    frames[i] = frame;
+
+                    if ("restoreToBackgroundColor".equals(disposal)) {
+                        g.setComposite(AlphaComposite.Clear);
+                        g.fillRect(x, y, raw.getWidth(), raw.getHeight());
+                        g.setComposite(AlphaComposite.SrcOver);
+                    } else if (previous != null) {
+                        canvas.setRGB(0, 0, w, h, previous, 0, w);
+                    }
+                }
+            } finally {
+                g.dispose();
+            }
+            return new FrameStrip(frames, delays);
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    /** Bilinear halving down to the target size (one bilinear step from far away looks grainy). */
+    private static BufferedImage shrink(BufferedImage src, int w, int h) {
+        BufferedImage img = src;
+        int cw = src.getWidth(), ch = src.getHeight();
+        while (cw != w || ch != h) {
+            cw = Math.max(w, cw / 2);
+            ch = Math.max(h, ch / 2);
+            BufferedImage next = new BufferedImage(cw, ch, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(img, 0, 0, cw, ch, null);
+            g.dispose();
+            img = next;
+        }
+        return img;
+    }
+
+    // ===== metadata helpers =====
+
+    private static Node child(Node parent, String name) {
+        for (Node n = parent.getFirstChild(); n != null; n = n.getNextSibling()) {
+            if (name.equals(n.getNodeName())) return n;
+        }
+        return null;
+    }
+
+    private static String attr(Node node, String name, String def) {
+        NamedNodeMap attrs = node.getAttributes();
+        Node a = attrs == null ? null : attrs.getNamedItem(name);
+        return a == null ? def : a.getNodeValue();
+    }
+
+    private static int intAttr(Node node, String name, int def) {
+        try {
+            return Integer.parseInt(attr(node, name, Integer.toString(def)));
+        } catch (NumberFormatException e) {
+            return def;
+        }
+    }
+}
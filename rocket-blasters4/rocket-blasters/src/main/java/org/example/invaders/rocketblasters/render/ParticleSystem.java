@@ -0,0 +1,178 @@
+package org.example.invaders.rocketblasters.render;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.util.Callback;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Random;
+
+/**
+ * Sparks and explosions rasterized in software into one image.
+ * - Particles live in parallel primitive arrays with a hard budget: a burst that does not
+ *   fit is cut short, nothing grows or allocates while playing.
+ * - Each particle is one additive pixel in an IntBuffer-backed {@link PixelBuffer}
+ *   ({@link #SCALE} of the logical size, so a pixel is a small smudge once scaled up).
+ *   Only the area touched last frame and this frame is cleared and re-uploaded; the
+ *   upload rectangle is snapped to a {@link #TILE} grid and its (immutable) Rectangle2D
+ *   is reused until the snapped span changes, instead of being allocated every frame.
+ * - The result is composited with a single {@link Renderer#drawSubImage} of the
+ *   particles' bounding box.
+ * FX thread only.
+ */
+public final class ParticleSystem {
+
+    public static final double SCALE = 0.5;   // buffer pixels per logical unit
+    private static final double DRAG = 2.5;   // 1/s
+    private static final int TILE = 64;       // upload grid (buffer px)
+
+    // ===== Particles (index-addressed, swap-remove) =====
+    private final double[] x, y, vx, vy, age, life;
+    private final int[] color; // 0xRRGGBB
+    private int count;
+    private int budget;
+
+    // ===== Raster =====
+    private int bw, bh;
+    private IntBuffer pixels;
+    private PixelBuffer<IntBuffer> buffer;
+    private WritableImage image;
+    private int x0, y0, x1 = -1, y1 = -1;         // box drawn this frame (buffer px, inclusive)
+    private int px0, py0, px1 = -1, py1 = -1;     // box drawn last frame
+    private final Callback<PixelBuffer<IntBuffer>, Rectangle2D> touched = b -> touchedRect();
+    private Rectangle2D uploadRect;              // last one returned, for tiles below
+    private int rectTx0, rectTy0, rectTx1, rectTy1;
+
+    private final Random rnd = new Random(); // looks only; the sim never sees it
+
+    public ParticleSystem(int capacity) {
+        capacity = Math.max(1, capacity);
+        x = new double[capacity]; y = new double[capacity];
+        vx = new double[capacity]; vy = new double[capacity];
+        age = new double[capacity]; life = new double[capacity];
+        color = new int[capacity];
+        budget = capacity;
+    }
+
+    /** Most particles alive at once (clamped to the capacity); extra ones are dropped now. */
+    public void setBudget(int budget) {
+        this.budget = Math.max(0, Math.min(x.length, budget));
+        if (count > this.budget) count = this.budget;
+    }
+
+    public int count() { return count; }
+
+    public void clear() { count = 0; }
+
+    /** Matches the raster to the logical view size (re-allocates only on change). */
+    public void resize(double w, double h) {
+        int nw = Math.max(1, (int) Math.ceil(w * SCALE)), nh = Math.max(1, (int) Math.ceil(h * SCALE));
+        if (nw == bw && nh == bh && image != null) return;
+        bw = nw;
+        bh = nh;
+        pixels = ByteBuffer.allocateDirect(bw * bh * 4).order(ByteOrder.nativeOrder()).asIntBuffer();
+        buffer = new PixelBuffer<>(bw, bh, pixels, PixelFormat.getIntArgbPreInstance());
+        image = new WritableImage(buffer);
+        uploadRect = null;
+        px1 = py1 = x1 = y1 = -1;
+    }
+
+    /**
+     * Sprays up to {@code n} particles from (cx, cy).
+     * @param speed max initial speed (px/s)
+     * @param ttl   max lifetime (s)
+     * @param rgb   base colour 0xRRGGBB (varied a little per particle)
+     */
+    public void burst(double cx, double cy, int n, double speed, double ttl, int rgb) {
+        n = Math.min(n, budget - count);
+        for (int k = 0; k < n; k++) {
+            int i = count++;
+            double a = rnd.nextDouble() * Math.PI * 2, s = speed * (0.25 + 0.75 * rnd.nextDouble());
+            x[i] = cx; y[i] = cy;
+            vx[i] = Math.cos(a) * s; vy[i] = Math.sin(a) * s;
+            age[i] = 0;
+            life[i] = ttl * (0.5 + 0.5 * rnd.nextDouble());
+            int warm = rnd.nextInt(64); // toward white
+            color[i] = rgb | (warm << 16) | (warm << 8) | warm;
+        }
+    }
+
+    /** Moves and ages everything by {@code dt} seconds, dropping expired particles. */
+    public void update(double dt) {
+        double drag = Math.max(0, 1 - DRAG * dt);
+        for (int i = count - 1; i >= 0; i--) {
+            age[i] += dt;
+            if (age[i] >= life[i]) {
+                int last = --count;
+                x[i] = x[last]; y[i] = y[last]; vx[i] = vx[last]; vy[i] = vy[last];
+                age[i] = age[last]; life[i] = life[last]; color[i] = color[last];
+                continue;
+            }
+            vx[i] *= drag; vy[i] *= drag;
+            x[i] += vx[i] * dt;
+            y[i] += vy[i] * dt;
+        }
+    }
+
+    /** Rasterizes the live particles and composites them with one sub-image draw. */
+    public void render(Renderer out) {
+        if (image == null || (count == 0 && px1 < 0)) return;
+
+        // wipe what was drawn last frame
+        for (int py = py0; py <= py1; py++) {
+            int row = py * bw;
+            for (int px = px0; px <= px1; px++) pixels.put(row + px, 0);
+        }
+
+        x0 = bw; y0 = bh; x1 = -1; y1 = -1;
+        for (int i = 0; i < count; i++) {
+            int px = (int) (x[i] * SCALE), py = (int) (y[i] * SCALE);
+            if (px < 0 || py < 0 || px >= bw || py >= bh) continue;
+            int a = (int) (255 * (1 - age[i] / life[i]));
+            int c = color[i];
+            int idx = py * bw + px;
+            int dst = pixels.get(idx);
+            // additive, premultiplied, saturating per channel
+            int r = Math.min(255, ((dst >>> 16) & 0xFF) + (((c >>> 16) & 0xFF) * a >> 8));
+            int g = Math.min(255, ((dst >>> 8) & 0xFF) + (((c >>> 8) & 0xFF) * a >> 8));
+            int b = Math.min(255, (dst & 0xFF) + ((c & 0xFF) * a >> 8));
+            int al = Math.min(255, (dst >>> 24) + a);
+            pixels.put(idx, (al << 24) | (r << 16) | (g << 8) | b);
+            if (px < x0) x0 = px;
+            if (px > x1) x1 = px;
+            if (py < y0) y0 = py;
+            if (py > y1) y1 = py;
+        }
+
+        buffer.updateBuffer(touched); // uploads the union of both boxes
+        px0 = x0; py0 = y0; px1 = x1; py1 = y1;
+
+        if (x1 >= 0) {
+            double sw = x1 - x0 + 1, sh = y1 - y0 + 1;
+            out.drawSubImage(image, x0, y0, sw, sh, x0 / SCALE, y0 / SCALE, sw / SCALE, sh / SCALE);
+        }
+    }
+
+    private Rectangle2D touchedRect() {
+        int ax0 = x0, ay0 = y0, ax1 = x1, ay1 = y1;
+        if (px1 >= 0) {
+            if (ax1 < 0) { ax0 = px0; ay0 = py0; ax1 = px1; ay1 = py1; }
+            else {
+                ax0 = Math.min(ax0, px0); ay0 = Math.min(ay0, py0);
+                ax1 = Math.max(ax1, px1); ay1 = Math.max(ay1, py1);
+            }
+        }
+        if (ax1 < 0) return Rectangle2D.EMPTY;
+        int tx0 = ax0 / TILE, ty0 = ay0 / TILE, tx1 = ax1 / TILE, ty1 = ay1 / TILE;
+        if (uploadRect == null || tx0 != rectTx0 || ty0 != rectTy0 || tx1 != rectTx1 || ty1 != rectTy1) {
+            int x = tx0 * TILE, y = ty0 * TILE;
+            uploadRect = new Rectangle2D(x, y, Math.min(bw, (tx1 + 1) * TILE) - x, Math.min(bh, (ty1 + 1) * TILE) - y);
+            rectTx0 = tx0; rectTy0 = ty0; rectTx1 = tx1; rectTy1 = ty1;
+        }
+        return uploadRect;
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.invaders.rocketblasters.render;
+
+import java.util.Arrays;
+
+/**
+ * Picks a visual quality level from measured frame times.
+ * - Frame intervals are collected in windows of {@link #WINDOW} frames; at the end of each
+ *   window the p50/p95 decide: p95 over budget steps one level down, {@link #UP_WINDOWS}
+ *   windows in a row with headroom step one level up.
+ * - Every transition is logged with the numbers behind it.
+ * Pin a level with {@code -Drb.quality=high|no_video|no_halos|minimal} (default auto);
+ * the budget comes from {@code -Drb.targetFps}.
+ * FX thread only.
+ */
+public final class QualityGovernor {
+
+    /** Quality levels, best first; each one drops a little more than the previous. */
+    public enum Level {
+        HIGH     (true,  true,  1.0, 4096),
+        NO_VIDEO (false, true,  1.0, 2048),
+        NO_HALOS (false, false, 1.0, 1024),
+        MINIMAL  (false, false, 0.4,  256);
+
+        /** Background video allowed (else the starfield). */
+        public final boolean video;
+        /** Pulsing enemy halos (else the bare sprite). */
+        public final boolean halos;
+        /** Fraction of the full star count. */
+        public final double starDensity;
+        /** Most particles drawn at once. */
+        public final int particleBudget;
+
+        Level(boolean video, boolean halos, double starDensity, int particleBudget) {
+            this.video = video;
+            this.halos = halos;
+            this.starDensity = starDensity;
+            this.particleBudget = particleBudget;
+        }
+    }
+
+    private static final int WINDOW = 120;
+    private static final double DOWN_P95 = 1.35; // x budget
+    private static final double UP_P95 = 1.10;
+    private static final int UP_WINDOWS = 3;
+
+    private final double budget; // seconds per frame
+    private final boolean pinned;
+    private Level level;
+
+    private final double[] samples = new double[WINDOW];
+    private final double[] sorted = new double[WINDOW];
+    private int count, goodWindows;
+
+    public QualityGovernor(double targetFps, Level start, boolean pinned) {
+        this.budget = 1.0 / Math.max(1, targetFps);
+        this.level = start;
+        this.pinned = pinned;
+    }
+
+    public static QualityGovernor fromSystemProperties() {
+        String q = System.getProperty("rb.quality", "auto");
+        if (!"auto".equalsIgnoreCase(q)) {
+            try {
+                return new QualityGovernor(ResolutionScaler.targetFps(), Level.valueOf(q.toUpperCase()), true);
+            } catch (IllegalArgumentException e) {
+                System.err.println("[Quality] unknown rb.quality '" + q + "', using auto");
+            }
+        }
+        return new QualityGovernor(ResolutionScaler.targetFps(), Level.HIGH, false);
+    }
+
+    public Level level() { return level; }
+
+    /** Starts a fresh window (e.g. after the render resolution changed). */
+    public void restart() {
+        count = 0;
+        goodWindows = 0;
+    }
+
+    /**
+     * Feeds one frame interval.
+     * @return true if the level changed; apply {@link #level()}
+     */
+    public boolean frame(double frameSeconds) {
+        if (pinned) return false;
+        samples[count++] = frameSeconds;
+        if (count < WINDOW) return false;
+        count = 0;
+
+        System.arraycopy(samples, 0, sorted, 0, WINDOW);
+        Arrays.sort(sorted);
+        double p50 = sorted[WINDOW / 2];
+        double p95 = sorted[(int) (WINDOW * 0.95)];
+
+        Level[] levels = Level.values();
+        if (p95 > budget * DOWN_P95) {
+            goodWindows = 0;
+            if (level.ordinal() == levels.length - 1) return false;
+            return change(levels[level.ordinal() + 1], "over budget", p50, p95);
+        }
+        if (p95 <= budget * UP_P95 && level.ordinal() > 0) {
+            if (++goodWindows < UP_WINDOWS) return false;
+            goodWindows = 0;
+            return change(levels[level.ordinal() - 1], "headroom", p50, p95);
+        }
+        goodWindows = 0;
+        return false;
+    }
+
+    private boolean change(Level next, String why, double p50, double p95) {
+        System.out.printf("[Quality] %s -> %s (%s: p50 %.1f ms, p95 %.1f ms, budget %.1f ms)%n",
+                level, next, why, p50 * 1e3, p95 * 1e3, budget * 1e3);
+        level = next;
+        return true;
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.invaders.rocketblasters.render;
+
+import javafx.scene.image.Image;
+import javafx.scene.paint.Paint;
+
+/**
+ * The few drawing calls the game uses, with the paint/image passed per call instead of
+ * set as context state, so a backend can skip redundant state changes.
+ * - {@link DrawList} records calls and replays them sorted by layer and state.
+ * - {@link CanvasRenderer} draws onto a Canvas; {@link CountingRenderer} only counts
+ *   (optionally forwarding), which is enough to measure a frame headless.
+ */
+public interface Renderer {
+
+    void fillRect(Paint fill, double x, double y, double w, double h);
+
+    void fillOval(Paint fill, double x, double y, double w, double h);
+
+    void strokeOval(Paint stroke, double lineWidth, double x, double y, double w, double h);
+
+    void drawImage(Image image, double x, double y, double w, double h);
+
+    /** Draws the source rect (sx, sy, sw, sh) of {@code image} into (x, y, w, h); used for atlas sprites. */
+    void drawSubImage(Image image, double sx, double sy, double sw, double sh,
+                      double x, double y, double w, double h);
+
+    void fillText(Paint fill, String text, double x, double y);
+}
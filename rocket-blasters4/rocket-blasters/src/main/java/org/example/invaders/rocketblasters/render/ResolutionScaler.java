@@ -0,0 +1,130 @@
+package org.example.invaders.rocketblasters.render;
+
+import javafx.scene.canvas.Canvas;
+
+/**
+ * Dynamic resolution for a set of canvas layers.
+ * - The game draws in logical coordinates ({@link #width()} x {@link #height()}, the pane
+ *   size); each layer holds only {@code scale} times as many pixels and the node is
+ *   scaled back up, so rasterization cost drops with scale^2.
+ * - Each layer's GraphicsContext gets a matching transform, so callers never see the scale.
+ * - {@link #frame} steps the scale down when the average frame time misses the target,
+ *   and probes one step back up after a run of good frames (waiting longer after every
+ *   probe that failed).
+ * Configure with {@code -Drb.dynres=on|off} (default on) and {@code -Drb.targetFps=60}.
+ * FX thread only.
+ */
+public final class ResolutionScaler {
+
+    private static final double[] STEPS = {1.0, 0.85, 0.7, 0.6, 0.5};
+    private static final double MISS = 1.2;             // average above target * MISS: step down
+    private static final double EMA = 0.05;             // frame time smoothing
+    private static final int SETTLE_FRAMES = 30;        // ignored right after a change
+    private static final int PROBE_FRAMES = 180;        // good frames before trying a step up
+    private static final int MAX_PROBE_FRAMES = 1800;
+
+    private final Canvas[] layers;
+    private final double target;   // seconds per frame
+    private final boolean enabled;
+
+    private double w = 1, h = 1;
+    private int step = 0;
+    private double avg;
+    private int settle, goodFrames;
+    private int probeFrames = PROBE_FRAMES;
+    private boolean probing;       // the last change was a step up that has not held yet
+
+    public ResolutionScaler(double targetFps, boolean enabled, Canvas... layers) {
+        this.layers = layers;
+        this.target = 1.0 / Math.max(1, targetFps);
+        this.enabled = enabled;
+        this.avg = target;
+    }
+
+    public static ResolutionScaler fromSystemProperties(Canvas... layers) {
+        boolean on = !"off".equalsIgnoreCase(System.getProperty("rb.dynres", "on"));
+        return new ResolutionScaler(targetFps(), on, layers);
+    }
+
+    /** {@code -Drb.targetFps}, shared with {@link QualityGovernor}. */
+    static double targetFps() {
+        try {
+            return Double.parseDouble(System.getProperty("rb.targetFps", "60"));
+        } catch (NumberFormatException e) {
+            System.err.println("[Render] bad rb.targetFps, using 60");
+            return 60;
+        }
+    }
+
+    /** Logical size; the layers' pixel size follows it times the current scale. */
+    public void setLogicalSize(double width, double height) {
+        w = Math.max(1, width);
+        h = Math.max(1, height);
+        apply();
+    }
+
+    public double width() { return w; }
+    public double height() { return h; }
+    public double scale() { return STEPS[step]; }
+
+    /** Ignores the next few frames (something else just changed the frame cost). */
+    public void holdOff() {
+        settle = SETTLE_FRAMES;
+        avg = target;
+    }
+
+    /**
+     * Feeds one frame interval.
+     * @return true if the scale (and so the layers' pixel size) changed; their content is gone
+     */
+    public boolean frame(double frameSeconds) {
+        if (!enabled) return false;
+        if (settle > 0) {
+            settle--;
+            return false;
+        }
+        avg += (Math.min(frameSeconds, target * 2) - avg) * EMA; // one hitch must not trigger a drop
+
+        if (avg > target * MISS) {
+            if (step == STEPS.length - 1) return false;
+            if (probing) probeFrames = Math.min(MAX_PROBE_FRAMES, probeFrames * 2);
+            return change(step + 1);
+        }
+        goodFrames++;
+        if (probing && goodFrames > SETTLE_FRAMES * 2) {
+            probing = false;        // the step up held
+            probeFrames = PROBE_FRAMES;
+        }
+        if (step > 0 && goodFrames >= probeFrames) {
+            boolean changed = change(step - 1);
+            probing = true;
+            return changed;
+        }
+        return false;
+    }
+
+    private boolean change(int newStep) {
+        System.out.printf("[DynRes] scale %.2f -> %.2f (avg frame %.1f ms)%n",
+                STEPS[step], STEPS[newStep], avg * 1e3);
+        step = newStep;
+        probing = false;
+        goodFrames = 0;
+        settle = SETTLE_FRAMES;
+        avg = target;
+        apply();
+        return true;
+    }
+
+    private void apply() {
+        double s = STEPS[step];
+        double pw = Math.max(1, Math.round(w * s)), ph = Math.max(1, Math.round(h * s));
+        for (Canvas layer : layers) {
+            layer.setWidth(pw);
+            layer.setHeight(ph);
+            // the parent centres the smaller node; scaling about its centre fills the pane again
+            layer.setScaleX(w / pw);
+            layer.setScaleY(h / ph);
+            layer.getGraphicsContext2D().setTransform(pw / w, 0, 0, ph / h, 0, 0);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.invaders.rocketblasters.render;
+
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.stage.Screen;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * All sprites of a screen packed into one image, each pre-scaled to its draw size.
+ * - Built once at load time: sources are drawn at draw size x DPI scale into shelves
+ *   of one Canvas and snapshotted, so the (often oversized) source images can be dropped.
+ * - Drawing a sprite is a sub-rect blit from the single atlas image with no scaling on a
+ *   1:1 display, and every sprite shares one paint state in {@link DrawList}.
+ * - Sprite ids are ints handed out by {@link Builder#add}; -1 means "no sprite, draw the fallback".
+ * Build on the FX thread.
+ */
+public final class SpriteAtlas {
+
+    private static final double PAD = 2;           // transparent gutter, keeps smoothing from bleeding
+    private static final double MIN_WIDTH = 512;
+
+    /** Collects sprites, then packs them with {@link #build}. */
+    public static final class Builder {
+        private final double scale;
+        private final List<Image> sources = new ArrayList<>();
+        private final List<double[]> sizes = new ArrayList<>();
+
+        /** @param scale atlas pixels per draw unit (see {@link #outputScale}) */
+        public Builder(double scale) {
+            this.scale = Math.max(1, scale);
+        }
+
+        /** @return sprite id, or -1 if the image is missing/broken */
+        public int add(Image source, double drawW, double drawH) {
+            if (source == null || source.isError()) return -1;
+            sources.add(source);
+            sizes.add(new double[]{drawW, drawH});
+            return sources.size() - 1;
+        }
+
+        public SpriteAtlas build() {
+            int n = sources.size();
+            double[] src = new double[n * 4];
+            double[] draw = new double[n * 2];
+            if (n == 0) return new SpriteAtlas(null, src, draw);
+
+            // tallest first onto shelves about as wide as the sprites are tall in total
+            Integer[] byHeight = new Integer[n];
+            double area = 0, widest = 0;
+            for (int i = 0; i < n; i++) {
+                byHeight[i] = i;
+                double pw = Math.ceil(sizes.get(i)[0] * scale), ph = Math.ceil(sizes.get(i)[1] * scale);
+                area += (pw + PAD) * (ph + PAD);
+                widest = Math.max(widest, pw + PAD * 2);
+            }
+            Arrays.sort(byHeight, (a, b) -> Double.compare(sizes.get(b)[1], sizes.get(a)[1]));
+            double atlasW = Math.ceil(Math.max(MIN_WIDTH, Math.max(widest, Math.sqrt(area * 1.25))));
+
+            double x = PAD, y = PAD, shelfH = 0;
+            for (int i : byHeight) {
+                double pw = Math.ceil(sizes.get(i)[0] * scale), ph = Math.ceil(sizes.get(i)[1] * scale);
+                if (x + pw + PAD > atlasW) {
+                    x = PAD;
+                    y += shelfH + PAD;
+                    shelfH = 0;
+                }
+                src[i * 4] = x; src[i * 4 + 1] = y; src[i * 4 + 2] = pw; src[i * 4 + 3] = ph;
+                draw[i * 2] = sizes.get(i)[0]; draw[i * 2 + 1] = sizes.get(i)[1];
+                x += pw + PAD;
+                shelfH = Math.max(shelfH, ph);
+            }
+
+            Canvas scratch = new Canvas(atlasW, Math.ceil(y + shelfH + PAD));
+            GraphicsContext g = scratch.getGraphicsContext2D();
+            g.setImageSmoothing(true);
+            for (int i = 0; i < n; i++) {
+                g.drawImage(sources.get(i), src[i * 4], src[i * 4 + 1], src[i * 4 + 2], src[i * 4 + 3]);
+            }
+            SnapshotParameters params = new SnapshotParameters();
+            params.setFill(Color.TRANSPARENT);
+            return new SpriteAtlas(scratch.snapshot(params, null), src, draw);
+        }
+    }
+
+    private final Image image;
+    private final double[] src;  // sx, sy, sw, sh per sprite (atlas pixels)
+    private final double[] draw; // w, h per sprite (draw units)
+
+    private SpriteAtlas(Image image, double[] src, double[] draw) {
+        this.image = image;
+        this.src = src;
+        this.draw = draw;
+    }
+
+    /** Primary screen's output scale (2.0 on a typical HiDPI display), at least 1. */
+    public static double outputScale() {
+        try {
+            Screen s = Screen.getPrimary();
+            return Math.max(1, Math.max(s.getOutputScaleX(), s.getOutputScaleY()));
+        } catch (RuntimeException e) {
+            return 1;
+        }
+    }
+
+    public Image image() { return image; }
+    public int size() { return draw.length / 2; }
+
+    /** Draw size of a sprite. */
+    public double width(int id) { return draw[id * 2]; }
+    public double height(int id) { return draw[id * 2 + 1]; }
+
+    /** Draws a sprite at its draw size with its top-left corner at (x, y). */
+    public void draw(Renderer r, int id, double x, double y) {
+        int s = id * 4;
+        r.drawSubImage(image, src[s], src[s + 1], src[s + 2], src[s + 3], x, y, draw[id * 2], draw[id * 2 + 1]);
+    }
+
+    /** Draws a sprite at its draw size centred on (cx, cy). */
+    public void drawCentered(Renderer r, int id, double cx, double cy) {
+        draw(r, id, cx - draw[id * 2] * 0.5, cy - draw[id * 2 + 1] * 0.5);
+    }
+}
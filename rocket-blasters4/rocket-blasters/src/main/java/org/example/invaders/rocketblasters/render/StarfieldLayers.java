@@ -0,0 +1,95 @@
+package org.example.invaders.rocketblasters.render;
+
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+
+import java.util.Random;
+
+/**
+ * Scrolling starfield baked into a few parallax layers.
+ * - Each layer is one screen-sized transparent image holding the stars of one size band;
+ *   it wraps vertically, so a frame is a black fill plus two drawImage calls per layer.
+ * - Layers are rebuilt only when the size or the density changes (see {@link #resize}).
+ * - Bigger stars sit on faster layers, like the per-star speeds it replaces.
+ * Build and draw on the FX thread.
+ */
+public final class StarfieldLayers {
+
+    private static final int LAYERS = 3;
+    private static final double MIN_R = 0.5, MAX_R = 2.5; // star size range
+
+    private final Color color;
+    private final double baseSpeed;  // px/sec “forward motion”
+    private final Random rnd;
+
+    private final Image[] tiles = new Image[LAYERS];
+    private final double[] speed = new double[LAYERS];
+    private final double[] offset = new double[LAYERS];
+    private double w, h;
+    private double density = 1.0;
+
+    public StarfieldLayers(Color color, double baseSpeed, Random rnd) {
+        this.color = color;
+        this.baseSpeed = baseSpeed;
+        this.rnd = rnd;
+    }
+
+    /** Fraction of the full star count (quality setting); takes effect on the next {@link #resize}. */
+    public void setDensity(double density) {
+        density = Math.max(0.05, Math.min(1.0, density));
+        if (density == this.density) return;
+        this.density = density;
+        tiles[0] = null; // force a re-bake
+    }
+
+    /** Re-bakes the layers if the size changed; cheap to call on every resize event. */
+    public void resize(double width, double height) {
+        width = Math.max(1, Math.ceil(width));
+        height = Math.max(1, Math.ceil(height));
+        if (width == w && height == h && tiles[0] != null) return;
+        w = width;
+        h = height;
+
+        int count = (int) (Math.max(200, (w * h) / 7000) * density); // same density as before at 1.0
+        Canvas scratch = new Canvas(w, h);
+        GraphicsContext g = scratch.getGraphicsContext2D();
+        SnapshotParameters params = new SnapshotParameters();
+        params.setFill(Color.TRANSPARENT);
+
+        double band = (MAX_R - MIN_R) / LAYERS;
+        for (int layer = 0; layer < LAYERS; layer++) {
+            double lo = MIN_R + band * layer;
+            speed[layer] = baseSpeed * (0.6 + 0.4 * (lo + band * 0.5)); // parallax-ish
+            offset[layer] = 0;
+
+            g.clearRect(0, 0, w, h);
+            g.setFill(color);
+            for (int i = 0; i < count / LAYERS; i++) {
+                double r = lo + rnd.nextDouble() * band;
+                double x = rnd.nextDouble() * w, y = rnd.nextDouble() * h;
+                g.fillOval(x - r, y - r, r * 2, r * 2);
+                // a star on the seam is drawn on both edges so the wrap is invisible
+                if (y - r < 0) g.fillOval(x - r, y + h - r, r * 2, r * 2);
+                if (y + r > h) g.fillOval(x - r, y - h - r, r * 2, r * 2);
+            }
+            tiles[layer] = scratch.snapshot(params, null);
+        }
+    }
+
+    /** Black background plus all layers, scrolled by {@code dt} seconds. */
+    public void draw(GraphicsContext g, double dt, double width, double height) {
+        g.setFill(Color.BLACK);
+        g.fillRect(0, 0, width, height);
+        if (tiles[0] == null) return;
+
+        for (int layer = 0; layer < LAYERS; layer++) {
+            double off = (offset[layer] + speed[layer] * dt) % h;
+            offset[layer] = off;
+            g.drawImage(tiles[layer], 0, off - h, w, h);
+            g.drawImage(tiles[layer], 0, off, w, h);
+        }
+    }
+}
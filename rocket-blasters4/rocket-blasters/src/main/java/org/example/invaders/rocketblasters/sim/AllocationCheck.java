@@ -0,0 +1,62 @@
+package org.example.invaders.rocketblasters.sim;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Test mode: asserts that steady-state GameSim ticks allocate zero bytes.
+ * Uses the HotSpot per-thread allocation counter (com.sun.management.ThreadMXBean).
+ * Usage: AllocationCheck [warmupTicks] [measuredTicks]   (exit code 1 on failure)
+ */
+public class AllocationCheck {
+
+    public static void main(String[] args) {
+        int warmup = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int measured = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+
+        long bytes = measure(warmup, measured);
+        if (bytes < 0) {
+            System.out.println("SKIP: thread allocation counters not supported on this JVM");
+            return;
+        }
+        System.out.printf("allocated=%d bytes over %d ticks (%.3f bytes/tick), kinematics=%s%n",
+                bytes, measured, (double) bytes / measured, Kinematics.get().name());
+        if (bytes != 0) {
+            System.out.println("FAIL: steady-state tick allocates");
+            System.exit(1);
+        }
+        System.out.println("OK: zero allocation per steady-state tick");
+    }
+
+    /**
+     * Runs a busy game (constant fire, sweeping movement) and counts bytes allocated by
+     * this thread during the measured ticks only.
+     * @return bytes allocated, or -1 if the JVM cannot measure it
+     */
+    public static long measure(int warmupTicks, int measuredTicks) {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean mx)
+                || !mx.isThreadAllocatedMemorySupported()) {
+            return -1;
+        }
+        mx.setThreadAllocatedMemoryEnabled(true);
+
+        GameSim sim = new GameSim(1234L);
+        sim.reset();
+        sim.setBounds(1460, 900);
+
+        // warm up: fill pools, grow grid/query buffers, let the JIT settle
+        runTicks(sim, warmupTicks);
+
+        long before = mx.getCurrentThreadAllocatedBytes();
+        runTicks(sim, measuredTicks);
+        long after = mx.getCurrentThreadAllocatedBytes();
+        return after - before;
+    }
+
+    private static void runTicks(GameSim sim, int ticks) {
+        for (int t = 0; t < ticks; t++) {
+            if (sim.isGameOver()) sim.reset(); // reset reuses the pools too
+            int input = Input.FIRE | (((t / 90) & 1) == 0 ? Input.LEFT : Input.RIGHT);
+            sim.tick(input, SimRunner.DT);
+        }
+    }
+}
@@ -0,0 +1,483 @@
+package org.example.invaders.rocketblasters.sim;
+
+import org.example.invaders.rocketblasters.model.EntityStore;
+import org.example.invaders.rocketblasters.util.TimerWheel;
+
+import java.util.Random;
+
+/**
+ * Headless single-player simulation (player, bullets, enemies, power-ups, lives/score).
+ * - No JavaFX types: feed it an {@link Input} mask and a dt, then read the state back.
+ * - Deterministic: all randomness comes from the seeded {@link Random}, so the same
+ *   seed + input sequence + dt sequence always produces the same game.
+ * - GameController only maps keys to input and renders; SimRunner runs it without a stage.
+ * - With a {@link StressConfig} it becomes the stress scenario: bigger pools, a steady
+ *   enemy stream, auto-fire and no lives lost.
+ */
+public class GameSim {
+
+    // ===== Player =====
+    public static final double P_SPEED = 400;
+    public static final double SHIP_W = 60, SHIP_H = 80;
+    public static final double SHIP_HALF_W = SHIP_W / 2.0, SHIP_HALF_H = SHIP_H / 2.0;
+    public static final double P_R = Math.min(SHIP_W, SHIP_H) * 0.38;
+
+    // ===== Bullets =====
+    public static final double B_R = 4;
+    public static final double B_SPD = 700;
+    public static final double FIRE_CD = 0.15;
+
+    // ===== Enemies =====
+    public static final double ENEMY_W = 48, ENEMY_H = 64;
+    public static final double E_R = Math.min(ENEMY_W, ENEMY_H) * 0.25;
+    public static final double WAVE_INTERVAL = 3.0; // slower waves
+    public static final double E_MAX_SPEED = 100;    // upper bound of spawned |v|, for swept queries
+
+    // ===== Pool sizes (fixed: a full pool skips the spawn instead of allocating) =====
+    public static final int MAX_BULLETS = 256;
+    public static final int MAX_ENEMIES = 512;
+    public static final int MAX_POWER_UPS = 16;
+
+    // ===== Power-ups =====
+    public static final double POWER_UP_R = 15;     // collision and drawing radius
+    public static final double POWER_UP_MAX_SPEED = 150;
+    public static final double SHIELD_DURATION = 5.0;        // seconds
+    public static final double RAPID_FIRE_DURATION = 7.0;    // seconds
+    public static final double RAPID_FIRE_MULTIPLIER = 0.5;  // halves the cooldown
+    public static final int    MAX_LIVES = 5;
+    public static final int    START_LIVES = 3;
+
+    // ===== Timer kinds (see onTimer) =====
+    private static final int T_FIRE_READY = 0;
+    private static final int T_WAVE = 1;
+    private static final int T_POWER_UP_SPAWN = 2;
+    private static final int T_SHIELD_END = 3;
+    private static final int T_RAPID_FIRE_END = 4;
+    private static final int NO_TIMER = -1;
+
+    private final Random rnd;
+
+    // ===== Bounds =====
+    private double w, h;
+
+    // ===== State =====
+    private double px, py, pvx, pvy;
+    private double px0, py0;   // player position at the start of the step
+    private boolean needsInitialSpawn = true;
+
+    // Cooldowns, waves and power-up effects expire through the wheel instead of being
+    // decremented every tick; the int fields are wheel handles
+    private final TimerWheel timers = new TimerWheel(16, this::onTimer);
+    private boolean timersArmed = false;
+    private double stepDt = SimRunner.DT;
+    private int fireCooldown = NO_TIMER;
+
+    private final EntityStore bullets;
+    private final EntityStore enemies;
+    private final EntityStore powerUps = new EntityStore(MAX_POWER_UPS, false); // kind = PowerUpType ordinal
+
+    // Broadphase: ids are store slots; the grids follow every swap-remove
+    private final SpatialHash enemyGrid;
+    private final SpatialHash powerUpGrid = new SpatialHash(POWER_UP_R * 2, 64, MAX_POWER_UPS);
+
+    // Batch kinematics (SIMD when available) + index scratch for the off-screen predicate
+    private final Kinematics kin = Kinematics.get();
+    private final int[] bulletCull;
+    private final int[] enemyCull;
+
+    private final StressConfig stress; // null for the normal game
+    private double stressSpawnDebt = 0; // enemies owed by the stream (fractional)
+    private double stressFireDebt = 0;  // bullets owed by auto-fire (fractional)
+
+    private boolean shieldActive = false;
+    private int shieldTimer = NO_TIMER;
+    private boolean rapidFireActive = false;
+    private int rapidFireTimer = NO_TIMER;
+
+    private int score = 0;
+    private int lives = START_LIVES;
+    private int best = 0;
+    private boolean gameOver = false;
+    private boolean statsChanged = true;
+
+    private long tickCount = 0;
+
+    private final SimEvents events = new SimEvents(); // kills etc. for render effects only
+
+    public GameSim(long seed) {
+        this(seed, null);
+    }
+
+    /** @param stress stress-scenario settings, or null for the normal game */
+    public GameSim(long seed, StressConfig stress) {
+        this.rnd = new Random(seed);
+        this.stress = stress;
+        int maxBullets = stress != null ? stress.maxBullets : MAX_BULLETS;
+        int maxEnemies = stress != null ? stress.maxEnemies : MAX_ENEMIES;
+        bullets = new EntityStore(maxBullets, false);
+        enemies = new EntityStore(maxEnemies, false);
+        enemyGrid = new SpatialHash(E_R, Math.max(1024, maxEnemies * 2), maxEnemies);
+        bulletCull = new int[bullets.capacity()];
+        enemyCull = new int[enemies.capacity()];
+    }
+
+    public GameSim() {
+        this(System.nanoTime());
+    }
+
+    // ===== Lifecycle =====
+
+    public void reset() {
+        score = 0; lives = START_LIVES;
+        bullets.clear();
+        enemies.clear();
+        powerUps.clear();
+        enemyGrid.clear();
+        powerUpGrid.clear();
+        timers.clear();
+        timersArmed = false;
+        fireCooldown = NO_TIMER;
+        stressSpawnDebt = 0; stressFireDebt = 0;
+
+        shieldActive = false; shieldTimer = NO_TIMER;
+        rapidFireActive = false; rapidFireTimer = NO_TIMER;
+
+        pvx = 0; pvy = 0;
+        px0 = px; py0 = py;
+        needsInitialSpawn = true;
+        gameOver = false;
+        statsChanged = true;
+        tickCount = 0;
+    }
+
+    /** Playfield size; the player is kept inside it. */
+    public void setBounds(double w, double h) {
+        this.w = w;
+        this.h = h;
+        clampPlayer();
+    }
+
+    // ===== Step =====
+
+    public void tick(int input, double dt) {
+        if (gameOver) return;
+
+        if (needsInitialSpawn) {
+            if (w > 0 && h > 0) { // wait until we have a playfield
+                px = w * 0.5;
+                py = h - SHIP_HALF_H - 20; // near bottom, offset by half height + buffer
+                px0 = px; py0 = py;
+                needsInitialSpawn = false;
+            } else {
+                return;
+            }
+        }
+        tickCount++;
+        stepDt = dt;
+        if (!timersArmed) {
+            if (stress == null) timers.schedule(1, T_WAVE, 0); // first wave right away
+            timers.schedule(ticks(5.0), T_POWER_UP_SPAWN, 0);
+            timersArmed = true;
+        }
+        timers.advance();
+
+        // remember where everything started, for swept tests (and render interpolation)
+        px0 = px; py0 = py;
+        bullets.savePrevious();
+        enemies.savePrevious();
+        powerUps.savePrevious();
+
+        // movement (WASD or arrows)
+        pvx = 0; pvy = 0;
+        if (Input.has(input, Input.LEFT))  pvx -= P_SPEED;
+        if (Input.has(input, Input.RIGHT)) pvx += P_SPEED;
+        if (Input.has(input, Input.UP))    pvy -= P_SPEED;
+        if (Input.has(input, Input.DOWN))  pvy += P_SPEED;
+
+        boolean shoot = Input.has(input, Input.FIRE);
+
+        px += pvx * dt;
+        py += pvy * dt;
+        clampPlayer();
+
+        // bullets
+        if (shoot && !timers.isPending(fireCooldown) && !bullets.isFull()) {
+            bullets.add(px, py - SHIP_HALF_H, 0, -B_SPD, 0); // from nose
+            double cd = rapidFireActive ? (FIRE_CD * RAPID_FIRE_MULTIPLIER) : FIRE_CD;
+            fireCooldown = timers.schedule(ticks(cd), T_FIRE_READY, 0);
+        }
+        if (stress != null && stress.autoFire) fireCurtain(dt);
+
+        // bullets vs enemies: swept along this step's path (no tunnelling at low tick rates),
+        // checking only enemies in the cells around that path.
+        // Movement and the off-screen test run as batch passes first; removal walks backwards
+        // so a swap-remove only ever moves an already-handled bullet.
+        final double[] bx = bullets.x, by = bullets.y, bvy = bullets.vy, by0 = bullets.y0;
+        final double[] ex = enemies.x, ey = enemies.y;
+        int bulletCount = bullets.size();
+        kin.integrate(by, bvy, bulletCount, dt);
+        int offscreen = kin.collectOutside(by, bulletCount, -10, Double.POSITIVE_INFINITY, bulletCull) - 1;
+        for (int i = bulletCount - 1; i >= 0; i--) {
+            boolean gone = offscreen >= 0 && bulletCull[offscreen] == i;
+            if (gone) offscreen--;
+            double midY = (by0[i] + by[i]) * 0.5;
+            double reach = Math.abs(by[i] - by0[i]) * 0.5 + B_R + E_R;
+            int n = enemyGrid.query(bx[i], midY, reach);
+            int victim = -1;
+            double first = Double.MAX_VALUE;
+            for (int k = 0; k < n; k++) {
+                int j = enemyGrid.result(k);
+                double t = Swept.segmentCircle(bx[i], by0[i], bx[i], by[i], ex[j], ey[j], B_R + E_R);
+                if (t >= 0 && t < first) { first = t; victim = j; }
+            }
+            if (victim >= 0) {
+                bullets.removeAt(i);
+                events.add(SimEvents.ENEMY_KILLED, ex[victim], ey[victim]);
+                removeEnemy(victim);
+                addScore(10);
+                continue;
+            }
+            if (gone) bullets.removeAt(i);
+        }
+
+        // stress spawn stream (normal waves come from the T_WAVE timer)
+        if (stress != null) spawnEnemyStream(dt);
+
+        // power-up movement
+        for (int i = powerUps.size() - 1; i >= 0; i--) {
+            powerUps.y[i] += powerUps.vy[i] * dt;
+
+            if (powerUps.y[i] > h + POWER_UP_R * 2) { // off-screen
+                removePowerUp(i);
+                continue;
+            }
+            powerUpGrid.update(i, powerUps.x[i], powerUps.y[i]);
+        }
+
+        // power-up collection (swept: ship and power-up both moved this step);
+        // remove one at a time so query ids stay valid
+        double playerStep = Math.hypot(px - px0, py - py0);
+        while (true) {
+            int n = powerUpGrid.query(px, py, P_R + POWER_UP_R + playerStep + POWER_UP_MAX_SPEED * dt);
+            int picked = -1;
+            for (int k = 0; k < n && picked < 0; k++) {
+                int i = powerUpGrid.result(k);
+                if (Swept.circles(px0, py0, px, py, P_R,
+                        powerUps.x0[i], powerUps.y0[i], powerUps.x[i], powerUps.y[i], POWER_UP_R) >= 0) {
+                    picked = i;
+                }
+            }
+            if (picked < 0) break;
+            applyPowerUp(PowerUpType.of(powerUps.kind[picked]));
+            removePowerUp(picked);
+        }
+
+        // enemies move, bounce off the side walls & reach the bottom (batch passes, then
+        // removals/grid updates backwards as above)
+        final double[] evx = enemies.vx, evy = enemies.vy;
+        int enemyCount = enemies.size();
+        kin.integrate(ex, evx, enemyCount, dt);
+        kin.integrate(ey, evy, enemyCount, dt);
+        kin.bounce(ex, evx, enemyCount, E_R, w - E_R);
+        int landed = kin.collectOutside(ey, enemyCount, Double.NEGATIVE_INFINITY, h - 40, enemyCull) - 1;
+        for (int i = enemyCount - 1; i >= 0; i--) {
+            if (landed >= 0 && enemyCull[landed] == i) {
+                landed--;
+                events.add(SimEvents.ENEMY_CRASHED, ex[i], ey[i]);
+                removeEnemy(i);
+                if (enemyHitsPlayer()) return;
+                continue;
+            }
+            enemyGrid.update(i, ex[i], ey[i]);
+        }
+
+        // enemies vs player (swept); remove one at a time so query ids stay valid
+        final double[] ex0 = enemies.x0, ey0 = enemies.y0;
+        while (true) {
+            int n = enemyGrid.query(px, py, P_R + E_R + playerStep + E_MAX_SPEED * dt);
+            int victim = -1;
+            for (int k = 0; k < n && victim < 0; k++) {
+                int j = enemyGrid.result(k);
+                if (Swept.circles(px0, py0, px, py, P_R, ex0[j], ey0[j], ex[j], ey[j], E_R) >= 0) victim = j;
+            }
+            if (victim < 0) break;
+            events.add(SimEvents.ENEMY_CRASHED, ex[victim], ey[victim]);
+            removeEnemy(victim);
+            if (enemyHitsPlayer()) return;
+        }
+    }
+
+    /** An enemy got through (or rammed the ship). @return true if that ended the game */
+    private boolean enemyHitsPlayer() {
+        if (stress != null) return false; // stress runs never end on their own
+        if (!shieldActive) { // only lose a life if the shield is NOT active
+            lives--;
+            statsChanged = true;
+            if (lives <= 0) { gameOver = true; return true; }
+        } else {
+            // shield absorbed the hit and breaks
+            shieldActive = false;
+            timers.cancel(shieldTimer);
+        }
+        return false;
+    }
+
+    private void onTimer(int kind, int arg) {
+        switch (kind) {
+            case T_WAVE:
+                spawnEnemyRow();
+                timers.schedule(ticks(WAVE_INTERVAL), T_WAVE, 0);
+                break;
+            case T_POWER_UP_SPAWN: // every 4-8 s, 30% chance each time
+                timers.schedule(ticks(4.0 + rnd.nextDouble() * 4.0), T_POWER_UP_SPAWN, 0);
+                if (rnd.nextDouble() < 0.3) spawnRandomPowerUp();
+                break;
+            case T_SHIELD_END:
+                shieldActive = false;
+                break;
+            case T_RAPID_FIRE_END:
+                rapidFireActive = false;
+                break;
+            default: // T_FIRE_READY: only its pending state matters
+                break;
+        }
+    }
+
+    private long ticks(double seconds) {
+        return TimerWheel.ticks(seconds, stepDt);
+    }
+
+    /** Swap-removes from the store and renames the moved slot in the grid. */
+    private void removeEnemy(int i) {
+        enemyGrid.remove(i);
+        int moved = enemies.removeAt(i);
+        if (moved >= 0) enemyGrid.move(moved, i);
+    }
+
+    private void removePowerUp(int i) {
+        powerUpGrid.remove(i);
+        int moved = powerUps.removeAt(i);
+        if (moved >= 0) powerUpGrid.move(moved, i);
+    }
+
+    private void spawnEnemyRow() {
+        int n = 5 + rnd.nextInt(3);
+        for (int i = 0; i < n; i++) {
+            double x = 40 + i * ((w - 80) / Math.max(1, n - 1));
+            double y = -20 - rnd.nextInt(100);
+            double vx = (rnd.nextBoolean() ? 1 : -1) * (40 + rnd.nextInt(40)); // slower horizontal wiggle
+            double vy = 25 + rnd.nextInt(30);                                  // downward speed
+            int slot = enemies.add(x, y, vx, vy, 0);
+            if (slot < 0) break; // pool full
+            enemyGrid.insert(slot, x, y);
+        }
+    }
+
+    /** Stress: a steady stream of enemies at random x along the top edge. */
+    private void spawnEnemyStream(double dt) {
+        stressSpawnDebt += stress.spawnRate * dt;
+        for (; stressSpawnDebt >= 1; stressSpawnDebt--) {
+            double x = E_R + rnd.nextDouble() * Math.max(1, w - 2 * E_R);
+            double y = -20 - rnd.nextInt(100);
+            double vx = (rnd.nextBoolean() ? 1 : -1) * (40 + rnd.nextInt(40));
+            double vy = 25 + rnd.nextInt(30);
+            int slot = enemies.add(x, y, vx, vy, 0);
+            if (slot < 0) { stressSpawnDebt = 0; break; } // pool full
+            enemyGrid.insert(slot, x, y);
+        }
+    }
+
+    /** Stress auto-fire: bullets rise from the player's row at random x across the field. */
+    private void fireCurtain(double dt) {
+        stressFireDebt += stress.fireRate * dt;
+        for (; stressFireDebt >= 1; stressFireDebt--) {
+            if (bullets.add(rnd.nextDouble() * w, py - SHIP_HALF_H, 0, -B_SPD, 0) < 0) {
+                stressFireDebt = 0; // pool full
+                break;
+            }
+        }
+    }
+
+    private void spawnRandomPowerUp() {
+        double spawnX = 50 + rnd.nextDouble() * (w - 100); // within screen bounds
+        double spawnY = -30;                                // just above the screen
+        double fallSpeed = 100 + rnd.nextDouble() * 50;
+
+        int type = rnd.nextInt(PowerUpType.count());
+
+        int slot = powerUps.add(spawnX, spawnY, 0, fallSpeed, type);
+        if (slot >= 0) powerUpGrid.insert(slot, spawnX, spawnY);
+    }
+
+    private void applyPowerUp(PowerUpType type) {
+        switch (type) {
+            case SHIELD: // picking up another one restarts the effect
+                shieldActive = true;
+                timers.cancel(shieldTimer);
+                shieldTimer = timers.schedule(ticks(SHIELD_DURATION), T_SHIELD_END, 0);
+                break;
+            case RAPID_FIRE:
+                rapidFireActive = true;
+                timers.cancel(rapidFireTimer);
+                rapidFireTimer = timers.schedule(ticks(RAPID_FIRE_DURATION), T_RAPID_FIRE_END, 0);
+                break;
+            case EXTRA_LIFE:
+                if (lives < MAX_LIVES) {
+                    lives++;
+                    statsChanged = true;
+                }
+                break;
+            case SCORE_BONUS:
+                addScore(100);
+                break;
+        }
+    }
+
+    private void addScore(int points) {
+        score += points;
+        if (score > best) best = score;
+        statsChanged = true;
+    }
+
+    private void clampPlayer() {
+        // avoid clamping in a playfield smaller than the ship
+        if (w <= SHIP_W || h <= SHIP_H) return;
+        px = Math.max(SHIP_HALF_W, Math.min(w - SHIP_HALF_W, px));
+        py = Math.max(SHIP_HALF_H, Math.min(h - SHIP_HALF_H, py));
+    }
+
+    // ===== State accessors =====
+
+    public double playerX() { return px; }
+    public double playerY() { return py; }
+    /** Player position at the start of the last step (for render interpolation). */
+    public double prevPlayerX() { return px0; }
+    public double prevPlayerY() { return py0; }
+    public boolean isSpawned() { return !needsInitialSpawn; }
+
+    /** Slots 0..size()-1; x/y are centres. */
+    public EntityStore bullets() { return bullets; }
+    public EntityStore enemies() { return enemies; }
+    /** kind holds the {@link PowerUpType} ordinal. */
+    public EntityStore powerUps() { return powerUps; }
+    public SimEvents events() { return events; }
+
+    public boolean isShieldActive() { return shieldActive; }
+    public boolean isRapidFireActive() { return rapidFireActive; }
+
+    public int score() { return score; }
+    public int lives() { return lives; }
+    public int best() { return best; }
+    public void setBest(int best) { this.best = best; statsChanged = true; }
+    public boolean isGameOver() { return gameOver; }
+    /** Stress-scenario settings, or null for the normal game. */
+    public StressConfig stress() { return stress; }
+    public long tickCount() { return tickCount; }
+
+    /** True once after score/lives/best changed; lets the HUD refresh only on change. */
+    public boolean consumeStatsChanged() {
+        boolean c = statsChanged;
+        statsChanged = false;
+        return c;
+    }
+}
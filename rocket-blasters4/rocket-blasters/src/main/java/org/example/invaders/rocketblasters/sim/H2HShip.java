@@ -0,0 +1,100 @@
+package org.example.invaders.rocketblasters.sim;
+
+/**
+ * Horizontal movement of one head-to-head ship, split out of the controller so it can be
+ * driven by numbered {@link Input} masks and re-simulated cheaply.
+ * - {@link #step} depends only on (x, input, width), so the host stepping the client's
+ *   inputs gets the same result the client predicted.
+ * - The predicting side {@link #record}s every input it applies. When the host's state
+ *   for input n arrives, {@link #reconcile} adopts it and replays the inputs after n, so
+ *   the local ship never waits for the network and still ends up where the host says.
+ * No allocation after construction.
+ */
+public final class H2HShip {
+
+    private static final int HISTORY = 256; // steps kept for replay (~4 s at 60 Hz)
+    private static final int MASK = HISTORY - 1;
+
+    private final double speed, halfW;
+    private double maxX = Double.MAX_VALUE;
+    private double x, vx;
+
+    private final byte[] inputs = new byte[HISTORY];
+    private int seq;    // last recorded input
+    private int acked;  // last input the host has applied
+
+    public H2HShip(double speed, double halfWidth) {
+        this.speed = speed;
+        this.halfW = halfWidth;
+    }
+
+    public double x() { return x; }
+    public double vx() { return vx; }
+
+    /** Places the ship (spawn / round start); recorded inputs so far count as settled. */
+    public void reset(double x) {
+        this.x = clamp(x);
+        vx = 0;
+        acked = seq;
+    }
+
+    /** Moves the ship directly (a peer's ship that is only followed, not simulated). */
+    public void setX(double x) {
+        this.x = clamp(x);
+    }
+
+    /** Playfield width the ship is kept inside. */
+    public void setWidth(double width) {
+        maxX = Math.max(halfW, width - halfW);
+        x = clamp(x);
+    }
+
+    /** Applies one input for {@code dt} seconds. */
+    public void step(int input, double dt) {
+        vx = 0;
+        if (Input.has(input, Input.LEFT)) vx -= speed;
+        if (Input.has(input, Input.RIGHT)) vx += speed;
+        x = clamp(x + vx * dt);
+    }
+
+    // ===== prediction =====
+
+    /** Remembers {@code input} under the next sequence number (call before stepping it). */
+    public int record(int input) {
+        seq++;
+        inputs[seq & MASK] = (byte) input;
+        if (seq - acked > HISTORY) acked = seq - HISTORY; // too old to replay anyway
+        return seq;
+    }
+
+    public int lastSeq() { return seq; }
+    public int acked() { return acked; }
+
+    /**
+     * Copies the newest unacknowledged inputs, oldest first, into {@code dst}.
+     * @return how many (at most {@code dst.length}); they end at {@link #lastSeq()}
+     */
+    public int unacked(byte[] dst) {
+        int n = Math.min(dst.length, seq - acked);
+        for (int i = 0; i < n; i++) dst[i] = inputs[(seq - n + 1 + i) & MASK];
+        return n;
+    }
+
+    /**
+     * Takes the host's position after it applied input {@code ack} and replays the inputs
+     * recorded since. Stale or unknown acks are ignored.
+     * @return how far the ship moved compared with the prediction
+     */
+    public double reconcile(int ack, double hostX, double dt) {
+        if (ack - acked <= 0 || ack - seq > 0) return 0;
+        double predicted = x;
+        acked = ack;
+        x = clamp(hostX);
+        for (int s = ack + 1; s - seq <= 0; s++) step(inputs[s & MASK], dt);
+        return x - predicted;
+    }
+
+    private double clamp(double v) {
+        return Math.max(halfW, Math.min(maxX, v));
+    }
+}
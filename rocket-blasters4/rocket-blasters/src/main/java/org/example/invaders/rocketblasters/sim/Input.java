@@ -0,0 +1,21 @@
+package org.example.invaders.rocketblasters.sim;
+
+/**
+ * Input frame for one simulation step, packed as a bit mask so it can be
+ * recorded, replayed or queued without allocating.
+ */
+public final class Input {
+    public static final int LEFT  = 1;
+    public static final int RIGHT = 1 << 1;
+    public static final int UP    = 1 << 2;
+    public static final int DOWN  = 1 << 3;
+    public static final int FIRE  = 1 << 4;
+
+    public static final int NONE = 0;
+
+    private Input() {}
+
+    public static boolean has(int input, int bit) {
+        return (input & bit) != 0;
+    }
+}
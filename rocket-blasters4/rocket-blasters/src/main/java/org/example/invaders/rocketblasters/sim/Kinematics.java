@@ -0,0 +1,70 @@
+package org.example.invaders.rocketblasters.sim;
+
+/**
+ * Batch updates over struct-of-arrays columns (entities 0..n-1): integration, wall
+ * bounce and the off-screen predicate.
+ * - {@link ScalarKinematics} is plain loops and always available.
+ * - {@code VectorKinematics} uses the incubating Vector API ({@code jdk.incubator.vector}).
+ *   It is only compiled with {@code mvn -Pvector} and only loads when the JVM runs with
+ *   {@code --add-modules jdk.incubator.vector}.
+ * - Both produce bit-identical results (same operations in the same order, no fused
+ *   multiply-add), so switching paths never changes a seeded game.
+ * Pick the path at startup with {@code -Drb.simd=on|off} (default off). Only the scalar
+ * path keeps the tick allocation-free from the start: the vector calls box their lanes
+ * until C2 has compiled them away, which takes far longer than the constructor's warm-up
+ * (AllocationCheck sees ~3 KB per tick for the first ~200k ticks). It is also only a small
+ * win at our entity counts (see KinematicsBench), so it needs both {@code -Drb.simd=on}
+ * and {@code --add-modules jdk.incubator.vector}.
+ */
+public interface Kinematics {
+
+    /** p[i] += v[i] * dt */
+    void integrate(double[] p, double[] v, int n, double dt);
+
+    /**
+     * Reflects off [lo, hi]: below lo snaps to lo and makes v positive, above hi snaps
+     * to hi and makes v negative (checked in that order, like the original per-enemy code).
+     */
+    void bounce(double[] p, double[] v, int n, double lo, double hi);
+
+    /**
+     * Writes the indices with p[i] < lo or p[i] > hi into {@code out}, ascending.
+     * @return how many were written ({@code out} must hold n)
+     */
+    int collectOutside(double[] p, int n, double lo, double hi, int[] out);
+
+    String name();
+
+    /** The path chosen at startup (see the class comment). */
+    static Kinematics get() {
+        return Holder.SELECTED;
+    }
+
+    final class Holder {
+        private Holder() {}
+
+        static final Kinematics SELECTED = select(System.getProperty("rb.simd", "off"));
+
+        static Kinematics select(String mode) {
+            if ("on".equalsIgnoreCase(mode)) {
+                Kinematics v = vectorOrNull();
+                if (v != null) return v;
+                System.err.println("[Kinematics] Vector API requested but unavailable "
+                        + "(run with --add-modules jdk.incubator.vector); using scalar.");
+            } else if (!"off".equalsIgnoreCase(mode)) {
+                System.err.println("[Kinematics] unknown rb.simd '" + mode + "', using scalar");
+            }
+            return new ScalarKinematics();
+        }
+
+        /** Loaded reflectively so a JVM without the incubator module never links it. */
+        public static Kinematics vectorOrNull() {
+            try {
+                return (Kinematics) Class.forName("org.example.invaders.rocketblasters.sim.VectorKinematics")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return null;
+            }
+        }
+    }
+}
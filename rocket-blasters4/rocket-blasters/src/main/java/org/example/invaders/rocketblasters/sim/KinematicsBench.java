@@ -0,0 +1,99 @@
+package org.example.invaders.rocketblasters.sim;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Benchmark: scalar vs Vector API kinematics on the enemy update (integrate x/y, bounce,
+ * bottom test) at several entity counts. Also checks both paths end bit-identical.
+ * Usage: java --add-modules jdk.incubator.vector ... KinematicsBench [counts=64,512,5000,20000] [seconds=1]
+ * Without the module only the scalar row is printed.
+ */
+public class KinematicsBench {
+
+    private static final double DT = 1.0 / 60.0, W = 1460, H = 900, R = GameSim.E_R;
+
+    public static void main(String[] args) {
+        int[] counts = {64, 512, 5_000, 20_000};
+        double seconds = 1.0;
+        for (String a : args) {
+            if (a.startsWith("counts=")) counts = Arrays.stream(a.substring(7).split(",")).mapToInt(Integer::parseInt).toArray();
+            else if (a.startsWith("seconds=")) seconds = Double.parseDouble(a.substring(8));
+        }
+
+        Kinematics scalar = new ScalarKinematics();
+        Kinematics vector = Kinematics.Holder.vectorOrNull();
+        System.out.println("selected at startup: " + Kinematics.get().name()
+                + (vector == null ? "  (Vector API unavailable: add --add-modules jdk.incubator.vector)" : ""));
+
+        for (int n : counts) {
+            double s = run(scalar, n, seconds);
+            if (vector == null) {
+                System.out.printf("n=%6d  scalar %8.2f ns/step%n", n, s);
+                continue;
+            }
+            double v = run(vector, n, seconds);
+            System.out.printf("n=%6d  scalar %8.2f ns/step  %s %8.2f ns/step  speedup x%.2f  identical=%b%n",
+                    n, s, vector.name(), v, s / v, identical(scalar, vector, n));
+        }
+    }
+
+    /** Average ns per step after a warm-up of the same length (lets C2 intrinsify the vectors). */
+    private static double run(Kinematics k, int n, double seconds) {
+        State st = new State(n);
+        long budget = (long) (seconds * 1e9);
+        steps(k, st, budget);
+        long[] measured = steps(k, st, budget);
+        return (double) measured[0] / measured[1];
+    }
+
+    /** @return {elapsed ns, steps} */
+    private static long[] steps(Kinematics k, State st, long budgetNanos) {
+        long t0 = System.nanoTime(), now = t0, steps = 0;
+        while (now - t0 < budgetNanos) {
+            for (int i = 0; i < 100; i++) st.step(k);
+            steps += 100;
+            now = System.nanoTime();
+        }
+        return new long[]{now - t0, steps};
+    }
+
+    private static boolean identical(Kinematics a, Kinematics b, int n) {
+        State sa = new State(n), sb = new State(n);
+        for (int i = 0; i < 2_000; i++) {
+            int ca = sa.step(a), cb = sb.step(b);
+            if (ca != cb) return false;
+        }
+        return Arrays.equals(sa.x, sb.x) && Arrays.equals(sa.y, sb.y)
+                && Arrays.equals(sa.vx, sb.vx) && Arrays.equals(sa.vy, sb.vy);
+    }
+
+    /** Enemy columns; entities that reach the bottom are put back on top so n stays fixed. */
+    private static final class State {
+        final double[] x, y, vx, vy;
+        final int[] out;
+        final int n;
+
+        State(int n) {
+            this.n = n;
+            Random r = new Random(n);
+            x = new double[n]; y = new double[n]; vx = new double[n]; vy = new double[n];
+            out = new int[n];
+            for (int i = 0; i < n; i++) {
+                x[i] = R + r.nextDouble() * (W - 2 * R);
+                y[i] = r.nextDouble() * H;
+                vx[i] = (r.nextBoolean() ? 1 : -1) * (40 + r.nextInt(40));
+                vy[i] = 25 + r.nextInt(30);
+            }
+        }
+
+        int step(Kinematics k) {
+            k.integrate(x, vx, n, DT);
+            k.integrate(y, vy, n, DT);
+            k.bounce(x, vx, n, R, W - R);
+            int c = k.collectOutside(y, n, Double.NEGATIVE_INFINITY, H - 40, out);
+            for (int i = 0; i < c; i++) y[out[i]] = -20;
+            return c;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.invaders.rocketblasters.sim;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Rolling one-window perf counters for the stress scenario: sim ticks, render frames and
+ * GC activity. Both the headless StressRunner and the FX stress mode feed it and print
+ * {@link #report} once per window, so the two outputs can be compared line for line.
+ */
+public class PerfWindow {
+
+    private long windowStart;
+    private long ticks, tickNanos, maxTickNanos;
+    private long frames, renderNanos, maxRenderNanos;
+    private long gcCount0, gcMillis0;
+
+    public PerfWindow() {
+        reset(System.nanoTime());
+    }
+
+    public void addTick(long nanos) {
+        ticks++;
+        tickNanos += nanos;
+        if (nanos > maxTickNanos) maxTickNanos = nanos;
+    }
+
+    /** Several ticks observed at once (e.g. from a snapshot on another thread). */
+    public void addTicks(long count, long totalNanos, long sampleMaxNanos) {
+        ticks += count;
+        tickNanos += totalNanos;
+        if (sampleMaxNanos > maxTickNanos) maxTickNanos = sampleMaxNanos;
+    }
+
+    public void addFrame(long nanos) {
+        frames++;
+        renderNanos += nanos;
+        if (nanos > maxRenderNanos) maxRenderNanos = nanos;
+    }
+
+    /** Wall time since the window opened. */
+    public long elapsedNanos(long now) {
+        return now - windowStart;
+    }
+
+    /**
+     * Formats the window and starts a new one.
+     * Frame figures are left out when nothing was rendered (headless runs).
+     */
+    public String report(long now, int enemies, int bullets, int powerUps) {
+        double secs = Math.max(1e-9, (now - windowStart) / 1e9);
+        long gcCount = 0, gcMillis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(0, gc.getCollectionCount());
+            gcMillis += Math.max(0, gc.getCollectionTime());
+        }
+
+        StringBuilder sb = new StringBuilder(160);
+        sb.append(String.format("ticks/s=%.0f tick=%.3fms (max %.3f)",
+                ticks / secs, avgMs(tickNanos, ticks), maxTickNanos / 1e6));
+        if (frames > 0) {
+            sb.append(String.format(" fps=%.0f render=%.3fms (max %.3f)",
+                    frames / secs, avgMs(renderNanos, frames), maxRenderNanos / 1e6));
+        }
+        sb.append(String.format(" enemies=%d bullets=%d powerUps=%d gc=%d (%dms)",
+                enemies, bullets, powerUps, gcCount - gcCount0, gcMillis - gcMillis0));
+
+        reset(now);
+        gcCount0 = gcCount;
+        gcMillis0 = gcMillis;
+        return sb.toString();
+    }
+
+    private void reset(long now) {
+        windowStart = now;
+        ticks = tickNanos = maxTickNanos = 0;
+        frames = renderNanos = maxRenderNanos = 0;
+    }
+
+    private static double avgMs(long nanos, long n) {
+        return n == 0 ? 0 : nanos / 1e6 / n;
+    }
+}
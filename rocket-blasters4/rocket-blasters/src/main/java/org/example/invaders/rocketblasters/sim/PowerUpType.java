@@ -0,0 +1,10 @@
+package org.example.invaders.rocketblasters.sim;
+
+public enum PowerUpType {
+    SHIELD, RAPID_FIRE, EXTRA_LIFE, SCORE_BONUS;
+
+    private static final PowerUpType[] VALUES = values(); // values() clones on every call
+
+    public static PowerUpType of(int ordinal) { return VALUES[ordinal]; }
+    public static int count() { return VALUES.length; }
+}
@@ -0,0 +1,30 @@
+package org.example.invaders.rocketblasters.sim;
+
+/** Plain-loop {@link Kinematics}; the fallback and the reference for the vector path. */
+public final class ScalarKinematics implements Kinematics {
+
+    @Override
+    public void integrate(double[] p, double[] v, int n, double dt) {
+        for (int i = 0; i < n; i++) p[i] += v[i] * dt;
+    }
+
+    @Override
+    public void bounce(double[] p, double[] v, int n, double lo, double hi) {
+        for (int i = 0; i < n; i++) {
+            if (p[i] < lo) { p[i] = lo; v[i] = Math.abs(v[i]); }
+            if (p[i] > hi) { p[i] = hi; v[i] = -Math.abs(v[i]); }
+        }
+    }
+
+    @Override
+    public int collectOutside(double[] p, int n, double lo, double hi, int[] out) {
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if (p[i] < lo || p[i] > hi) out[count++] = i;
+        }
+        return count;
+    }
+
+    @Override
+    public String name() { return "scalar"; }
+}
@@ -0,0 +1,48 @@
+package org.example.invaders.rocketblasters.sim;
+
+/**
+ * Fixed ring of things that happened in the sim (kills, hits), for purely visual effects.
+ * - Every event gets a sequence number that keeps counting across resets, so a reader
+ *   that skipped snapshots still sees what it missed: everything in
+ *   {@code (lastSeen, next())}, as long as it is newer than {@link #oldest()}.
+ * - Recording does not allocate and nothing in the sim reads it back, so determinism is
+ *   unaffected.
+ */
+public final class SimEvents {
+
+    public static final int ENEMY_KILLED = 0; // shot down
+    public static final int ENEMY_CRASHED = 1; // reached the bottom or rammed the ship
+
+    public static final int CAPACITY = 1024;
+    private static final int MASK = CAPACITY - 1;
+
+    private final int[] kind = new int[CAPACITY];
+    private final double[] x = new double[CAPACITY], y = new double[CAPACITY];
+    private long next = 0;
+
+    void add(int kind, double x, double y) {
+        int i = (int) (next & MASK);
+        this.kind[i] = kind;
+        this.x[i] = x;
+        this.y[i] = y;
+        next++;
+    }
+
+    /** Sequence number the next event will get. */
+    public long next() { return next; }
+
+    /** Oldest sequence number still in the ring. */
+    public long oldest() { return Math.max(0, next - CAPACITY); }
+
+    public int kind(long seq) { return kind[(int) (seq & MASK)]; }
+    public double x(long seq) { return x[(int) (seq & MASK)]; }
+    public double y(long seq) { return y[(int) (seq & MASK)]; }
+
+    void copyFrom(SimEvents o) {
+        if (o.next == next) return;
+        System.arraycopy(o.kind, 0, kind, 0, CAPACITY);
+        System.arraycopy(o.x, 0, x, 0, CAPACITY);
+        System.arraycopy(o.y, 0, y, 0, CAPACITY);
+        next = o.next;
+    }
+}
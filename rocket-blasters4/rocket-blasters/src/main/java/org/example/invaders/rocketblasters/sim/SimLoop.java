@@ -0,0 +1,111 @@
+package org.example.invaders.rocketblasters.sim;
+
+import org.example.invaders.rocketblasters.util.TripleBuffer;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a GameSim on its own thread at a fixed rate.
+ * - Input is level-triggered: the FX thread publishes the current key mask
+ *   ({@link #setInput}) and every step uses the newest one.
+ * - Every step is published as a {@link SimSnapshot} through a triple buffer; the
+ *   FX thread only reads {@link #latest()} to draw, so layout passes, dialogs or media
+ *   callbacks on the FX thread no longer stall the game logic.
+ * - The thread ends by itself after the game-over step has been published.
+ */
+public class SimLoop implements Runnable {
+
+    private static final long MAX_LAG_NANOS = 250_000_000L; // drop backlog past 0.25 s (like the dt clamp)
+
+    private final GameSim sim;
+    private final double dt;
+    private final long stepNanos;
+
+    private volatile int input = Input.NONE;
+    private final TripleBuffer<SimSnapshot> snapshots;
+
+    private volatile boolean running;
+    private volatile double width, height;
+    private Thread thread;
+
+    // sim-thread state
+    private int statsVersion = 0;
+    private long workNanosTotal = 0;
+
+    public SimLoop(GameSim sim, double dt) {
+        this.sim = sim;
+        this.dt = dt;
+        this.stepNanos = Math.round(dt * 1e9);
+        this.snapshots = new TripleBuffer<>(() -> new SimSnapshot(sim));
+    }
+
+    public void start(String name) {
+        publish(System.nanoTime(), 0); // so the renderer has something before the first step
+        running = true;
+        thread = new Thread(this, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Stops the thread and waits for it; afterwards the sim may be touched directly again. */
+    public void stop() {
+        running = false;
+        Thread t = thread;
+        if (t == null || t == Thread.currentThread()) return;
+        LockSupport.unpark(t);
+        try { t.join(); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        thread = null;
+    }
+
+    public boolean isRunning() { return running; }
+
+    public long stepNanos() { return stepNanos; }
+
+    // ===== FX-thread side =====
+
+    /** Replaces the input mask; the sim thread uses it from its next step on. */
+    public void setInput(int mask) {
+        input = mask;
+    }
+
+    public void setBounds(double w, double h) {
+        width = w;
+        height = h;
+    }
+
+    /** Newest published step (render side only). */
+    public SimSnapshot latest() {
+        return snapshots.acquire();
+    }
+
+    // ===== sim thread =====
+
+    @Override
+    public void run() {
+        long next = System.nanoTime();
+        while (running) {
+            long now = System.nanoTime();
+            if (now < next) {
+                LockSupport.parkNanos(next - now);
+                continue;
+            }
+            if (now - next > MAX_LAG_NANOS) next = now;
+
+            sim.setBounds(width, height);
+            long t0 = System.nanoTime();
+            sim.tick(input, dt);
+            long t1 = System.nanoTime();
+            workNanosTotal += t1 - t0;
+            if (sim.consumeStatsChanged()) statsVersion++;
+            publish(t1, t1 - t0);
+            next += stepNanos;
+
+            if (sim.isGameOver()) running = false;
+        }
+    }
+
+    private void publish(long nanos, long workNanos) {
+        snapshots.back().copyFrom(sim, statsVersion, nanos, workNanos, workNanosTotal);
+        snapshots.publish();
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.invaders.rocketblasters.sim;
+
+import java.util.Random;
+
+/**
+ * Runs single-player games headless (no JavaFX stage) with a simple random bot.
+ * Usage: SimRunner [games] [seed] [tickHz]
+ * Prints throughput plus score stats; the same seed always gives the same totals.
+ * Collisions are swept, so low rates (20-30 Hz) play the same game at a fraction of the CPU.
+ */
+public class SimRunner {
+
+    public static final double DT = 1.0 / 60.0;
+    private static final double FIELD_W = 1460, FIELD_H = 900;
+    private static final double MAX_SECONDS = 60 * 10;   // 10 simulated minutes per game
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42L;
+        double dt = args.length > 2 ? 1.0 / Double.parseDouble(args[2]) : DT;
+
+        long t0 = System.nanoTime();
+        long totalScore = 0, totalTicks = 0;
+        int bestScore = 0;
+        for (int i = 0; i < games; i++) {
+            GameSim sim = runGame(seed + i, dt);
+            totalScore += sim.score();
+            totalTicks += sim.tickCount();
+            bestScore = Math.max(bestScore, sim.score());
+        }
+        double secs = (System.nanoTime() - t0) / 1e9;
+
+        System.out.printf("games=%d hz=%.0f ticks=%d time=%.2fs games/s=%.1f ticks/s=%.0f%n",
+                games, 1.0 / dt, totalTicks, secs, games / secs, totalTicks / secs);
+        System.out.printf("avgScore=%.1f bestScore=%d%n", (double) totalScore / games, bestScore);
+    }
+
+    /** Plays one game to completion (or the tick cap) and returns the final state. */
+    public static GameSim runGame(long seed) {
+        return runGame(seed, DT);
+    }
+
+    public static GameSim runGame(long seed, double dt) {
+        GameSim sim = new GameSim(seed);
+        Random bot = new Random(~seed);
+        sim.reset();
+        sim.setBounds(FIELD_W, FIELD_H);
+
+        long maxTicks = (long) (MAX_SECONDS / dt);
+        long repick = Math.max(1, Math.round(1.0 / 3.0 / dt)); // new direction ~3x per second
+        int input = Input.FIRE;
+        for (long t = 0; t < maxTicks && !sim.isGameOver(); t++) {
+            if (t % repick == 0) {
+                input = Input.FIRE;
+                int r = bot.nextInt(3);
+                if (r == 1) input |= Input.LEFT;
+                else if (r == 2) input |= Input.RIGHT;
+            }
+            sim.tick(input, dt);
+        }
+        return sim;
+    }
+}
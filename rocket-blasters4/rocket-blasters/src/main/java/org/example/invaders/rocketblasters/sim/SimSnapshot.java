@@ -0,0 +1,76 @@
+package org.example.invaders.rocketblasters.sim;
+
+import org.example.invaders.rocketblasters.model.EntityStore;
+
+/**
+ * Copy of everything the renderer needs from one GameSim step.
+ * Instances are preallocated (sized to the sim pools) and reused through a
+ * TripleBuffer, so publishing a snapshot every tick does not allocate.
+ */
+public class SimSnapshot {
+
+    /** Start/end positions of one entity kind for the step. */
+    public static class Entities {
+        public int size;
+        public final double[] x0, y0, x, y;
+        public final int[] kind;
+
+        Entities(int capacity) {
+            x0 = new double[capacity]; y0 = new double[capacity];
+            x = new double[capacity]; y = new double[capacity];
+            kind = new int[capacity];
+        }
+
+        void copyFrom(EntityStore s) {
+            size = s.size();
+            System.arraycopy(s.x0, 0, x0, 0, size);
+            System.arraycopy(s.y0, 0, y0, 0, size);
+            System.arraycopy(s.x, 0, x, 0, size);
+            System.arraycopy(s.y, 0, y, 0, size);
+            System.arraycopy(s.kind, 0, kind, 0, size);
+        }
+    }
+
+    public long tickNanos;      // System.nanoTime() when this step was published
+    public long tick;
+    public long stepWorkNanos;  // time spent inside GameSim.tick for this step
+    public long workNanosTotal; // running total of stepWorkNanos since the loop started
+
+    public double playerX0, playerY0, playerX, playerY;
+    public boolean spawned;
+    public boolean shieldActive;
+
+    public final Entities bullets;
+    public final Entities enemies;
+    public final Entities powerUps; // kind = PowerUpType ordinal
+    public final SimEvents events = new SimEvents(); // recent events, see SimEvents for catching up
+
+    public int score, lives, best;
+    public int statsVersion;    // bumped whenever score/lives/best changed
+    public boolean gameOver;
+
+    /** Sized to the pools of {@code sim} (they are fixed, so every step fits). */
+    public SimSnapshot(GameSim sim) {
+        bullets = new Entities(sim.bullets().capacity());
+        enemies = new Entities(sim.enemies().capacity());
+        powerUps = new Entities(sim.powerUps().capacity());
+    }
+
+    void copyFrom(GameSim sim, int statsVersion, long nanos, long workNanos, long workTotal) {
+        tickNanos = nanos;
+        stepWorkNanos = workNanos;
+        workNanosTotal = workTotal;
+        tick = sim.tickCount();
+        playerX0 = sim.prevPlayerX(); playerY0 = sim.prevPlayerY();
+        playerX = sim.playerX(); playerY = sim.playerY();
+        spawned = sim.isSpawned();
+        shieldActive = sim.isShieldActive();
+        bullets.copyFrom(sim.bullets());
+        enemies.copyFrom(sim.enemies());
+        powerUps.copyFrom(sim.powerUps());
+        events.copyFrom(sim.events());
+        score = sim.score(); lives = sim.lives(); best = sim.best();
+        this.statsVersion = statsVersion;
+        gameOver = sim.isGameOver();
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.invaders.rocketblasters.sim;
+
+import java.util.Arrays;
+
+/**
+ * Uniform-grid spatial hash used as a collision broadphase.
+ * - Items are small int ids (the caller's entity index); positions are bucketed
+ *   into square cells of {@code cellSize}.
+ * - Incremental: {@link #update} only relinks an item when it crosses a cell border,
+ *   so moving entities cost O(1) per tick instead of a full rebuild.
+ * - Each item remembers its cell, so {@link #query} never reports an item twice even
+ *   when two cells share a bucket.
+ * - Storage is primitive arrays (intrusive doubly-linked lists); no per-item objects.
+ */
+public class SpatialHash {
+
+    private static final int NONE = -1;
+    private static final int ABSENT = Integer.MIN_VALUE;
+
+    private final double invCell;
+    private final int mask;
+    private final int[] head;         // bucket -> first id (or NONE)
+
+    private int[] next = new int[0];  // id -> next id in bucket
+    private int[] prev = new int[0];  // id -> previous id in bucket
+    private int[] cellX = new int[0]; // id -> cell x (ABSENT if not stored)
+    private int[] cellY = new int[0];
+
+    private int[] results;
+    private int resultCount;
+
+    /**
+     * @param cellSize side of one grid cell, in px
+     * @param buckets  number of hash buckets (rounded up to a power of two)
+     * @param capacity initial number of ids (and query results); grows on demand,
+     *                 so size it to the entity pool to keep steady-state ticks allocation-free
+     */
+    public SpatialHash(double cellSize, int buckets, int capacity) {
+        this.invCell = 1.0 / cellSize;
+        int n = Integer.highestOneBit(Math.max(16, buckets - 1)) << 1;
+        this.mask = n - 1;
+        this.head = new int[n];
+        Arrays.fill(head, NONE);
+        this.results = new int[Math.max(64, capacity)];
+        ensureCapacity(capacity);
+    }
+
+    public void clear() {
+        Arrays.fill(head, NONE);
+        Arrays.fill(cellX, ABSENT);
+    }
+
+    public void insert(int id, double x, double y) {
+        ensureCapacity(id + 1);
+        if (cellX[id] != ABSENT) unlink(id);
+        link(id, cell(x), cell(y));
+    }
+
+    /** Moves an item; only touches the lists when it changed cell. */
+    public void update(int id, double x, double y) {
+        int cx = cell(x), cy = cell(y);
+        if (cellX[id] == cx && cellY[id] == cy) return;
+        if (cellX[id] != ABSENT) unlink(id);
+        link(id, cx, cy);
+    }
+
+    public void remove(int id) {
+        if (id < cellX.length && cellX[id] != ABSENT) unlink(id);
+    }
+
+    /**
+     * Renames item {@code from} to {@code to} in place (same cell, same list position).
+     * Used after a swap-remove moved the last entity into a freed slot.
+     */
+    public void move(int from, int to) {
+        if (from == to || cellX[from] == ABSENT) return;
+        remove(to);
+        int p = prev[from], n = next[from];
+        next[to] = n; prev[to] = p;
+        cellX[to] = cellX[from]; cellY[to] = cellY[from];
+        if (p != NONE) next[p] = to; else head[bucket(cellX[to], cellY[to])] = to;
+        if (n != NONE) prev[n] = to;
+        cellX[from] = ABSENT;
+    }
+
+    /**
+     * Collects every item whose cell overlaps the square around (x, y) with half-size r.
+     * Results are candidates only; callers still run the exact test.
+     * @return number of candidates, read them back with {@link #result(int)}
+     */
+    public int query(double x, double y, double r) {
+        resultCount = 0;
+        int x0 = cell(x - r), x1 = cell(x + r);
+        int y0 = cell(y - r), y1 = cell(y + r);
+        for (int cy = y0; cy <= y1; cy++) {
+            for (int cx = x0; cx <= x1; cx++) {
+                for (int id = head[bucket(cx, cy)]; id != NONE; id = next[id]) {
+                    if (cellX[id] != cx || cellY[id] != cy) continue; // bucket collision
+                    if (resultCount == results.length) results = Arrays.copyOf(results, resultCount * 2);
+                    results[resultCount++] = id;
+                }
+            }
+        }
+        return resultCount;
+    }
+
+    public int result(int i) { return results[i]; }
+
+    // ===== internals =====
+
+    private int cell(double v) {
+        return (int) Math.floor(v * invCell);
+    }
+
+    private int bucket(int cx, int cy) {
+        return ((cx * 73856093) ^ (cy * 19349663)) & mask;
+    }
+
+    private void link(int id, int cx, int cy) {
+        int b = bucket(cx, cy);
+        int h = head[b];
+        next[id] = h; prev[id] = NONE;
+        if (h != NONE) prev[h] = id;
+        head[b] = id;
+        cellX[id] = cx; cellY[id] = cy;
+    }
+
+    private void unlink(int id) {
+        int p = prev[id], n = next[id];
+        if (p != NONE) next[p] = n; else head[bucket(cellX[id], cellY[id])] = n;
+        if (n != NONE) prev[n] = p;
+        cellX[id] = ABSENT;
+    }
+
+    private void ensureCapacity(int n) {
+        if (n <= cellX.length) return;
+        int cap = Math.max(n, cellX.length * 2);
+        int old = cellX.length;
+        next = Arrays.copyOf(next, cap);
+        prev = Arrays.copyOf(prev, cap);
+        cellX = Arrays.copyOf(cellX, cap);
+        cellY = Arrays.copyOf(cellY, cap);
+        Arrays.fill(cellX, old, cap, ABSENT);
+    }
+}
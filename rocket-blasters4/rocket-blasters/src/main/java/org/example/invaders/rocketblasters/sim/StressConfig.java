@@ -0,0 +1,56 @@
+package org.example.invaders.rocketblasters.sim;
+
+/**
+ * Settings for the bullet-hell stress scenario ({@code GameMode.STRESS}).
+ * - Enemies stream in at {@link #spawnRate} per second instead of the 3 s waves.
+ * - Auto-fire sprays {@link #fireRate} bullets per second across the whole width,
+ *   so collision work scales with both pools at once.
+ * - The player cannot lose lives, so a run only ends when the caller stops it.
+ * Values come from {@code key=value} pairs, either as command-line args (StressRunner)
+ * or as {@code -Dstress.<key>=<value>} system properties (the FX stress mode).
+ */
+public final class StressConfig {
+
+    public double spawnRate = 500;    // enemies per second
+    public int maxEnemies = 5_000;    // enemy pool size
+    public int maxBullets = 10_000;   // bullet pool size
+    public boolean autoFire = true;
+    public double fireRate = 6_000;   // bullets per second while auto-firing
+
+    /** Defaults overridden by {@code -Dstress.spawnRate=...} and friends. */
+    public static StressConfig fromSystemProperties() {
+        StressConfig c = new StressConfig();
+        for (String key : new String[]{"spawnRate", "maxEnemies", "maxBullets", "autoFire", "fireRate"}) {
+            String v = System.getProperty("stress." + key);
+            if (v != null) c.set(key, v);
+        }
+        return c;
+    }
+
+    /** Defaults overridden by {@code key=value} args; other args are ignored. */
+    public static StressConfig fromArgs(String[] args) {
+        StressConfig c = new StressConfig();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (eq > 0) c.set(a.substring(0, eq), a.substring(eq + 1));
+        }
+        return c;
+    }
+
+    private void set(String key, String value) {
+        switch (key) {
+            case "spawnRate":  spawnRate = Math.max(0, Double.parseDouble(value)); break;
+            case "maxEnemies": maxEnemies = Math.max(1, Integer.parseInt(value)); break;
+            case "maxBullets": maxBullets = Math.max(1, Integer.parseInt(value)); break;
+            case "autoFire":   autoFire = Boolean.parseBoolean(value); break;
+            case "fireRate":   fireRate = Math.max(0, Double.parseDouble(value)); break;
+            default: break;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("spawnRate=%.0f/s maxEnemies=%d maxBullets=%d autoFire=%b fireRate=%.0f/s",
+                spawnRate, maxEnemies, maxBullets, autoFire, fireRate);
+    }
+}
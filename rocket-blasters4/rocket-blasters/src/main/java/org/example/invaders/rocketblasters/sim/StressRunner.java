@@ -0,0 +1,55 @@
+package org.example.invaders.rocketblasters.sim;
+
+/**
+ * Headless bullet-hell stress run (no JavaFX stage).
+ * Usage: StressRunner [seconds=30] [hz=60] [seed=42] [spawnRate=..] [maxEnemies=..]
+ *                     [maxBullets=..] [autoFire=..] [fireRate=..]
+ * Steps the sim as fast as it can and prints one line per simulated second: achievable
+ * ticks/s, ms per tick, live entity counts and GC activity. Ramp the caps and rates
+ * until ticks/s drops below the target rate to find where the sim breaks down.
+ */
+public class StressRunner {
+
+    private static final double FIELD_W = 1460, FIELD_H = 900;
+
+    public static void main(String[] args) {
+        double seconds = 30, hz = 60;
+        long seed = 42L;
+        for (String a : args) {
+            if (a.startsWith("seconds=")) seconds = Double.parseDouble(a.substring(8));
+            else if (a.startsWith("hz=")) hz = Double.parseDouble(a.substring(3));
+            else if (a.startsWith("seed=")) seed = Long.parseLong(a.substring(5));
+        }
+        StressConfig cfg = StressConfig.fromArgs(args);
+        double dt = 1.0 / hz;
+        System.out.printf("stress: %s hz=%.0f seconds=%.0f kinematics=%s%n",
+                cfg, hz, seconds, Kinematics.get().name());
+
+        GameSim sim = new GameSim(seed, cfg);
+        sim.reset();
+        sim.setBounds(FIELD_W, FIELD_H);
+
+        PerfWindow perf = new PerfWindow();
+        long ticksPerSecond = Math.max(1, Math.round(hz));
+        long total = (long) (seconds * hz);
+        long t0 = System.nanoTime();
+        int input = Input.NONE;
+        for (long t = 0; t < total; t++) {
+            if (t % (ticksPerSecond * 2) == 0) { // sweep left/right every 2 s
+                input = (t / (ticksPerSecond * 2)) % 2 == 0 ? Input.LEFT : Input.RIGHT;
+            }
+            long a = System.nanoTime();
+            sim.tick(input, dt);
+            long b = System.nanoTime();
+            perf.addTick(b - a);
+
+            if ((t + 1) % ticksPerSecond == 0) {
+                System.out.printf("t=%3ds %s%n", (t + 1) / ticksPerSecond,
+                        perf.report(b, sim.enemies().size(), sim.bullets().size(), sim.powerUps().size()));
+            }
+        }
+        double secs = (System.nanoTime() - t0) / 1e9;
+        System.out.printf("total: ticks=%d time=%.2fs ticks/s=%.0f (realtime x%.1f) score=%d%n",
+                total, secs, total / secs, total / secs / hz, sim.score());
+    }
+}
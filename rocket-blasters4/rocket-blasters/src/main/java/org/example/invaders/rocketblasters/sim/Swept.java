@@ -0,0 +1,42 @@
+package org.example.invaders.rocketblasters.sim;
+
+/**
+ * Continuous (swept) collision tests, so fast bullets cannot tunnel through
+ * small targets when the simulation runs at a low tick rate.
+ */
+public final class Swept {
+
+    private Swept() {}
+
+    /**
+     * First contact of the segment A->B with the circle (cx, cy, r).
+     * @return t in [0, 1] along the segment (0 if A already overlaps), or -1 for no hit
+     */
+    public static double segmentCircle(double ax, double ay, double bx, double by,
+                                       double cx, double cy, double r) {
+        double dx = bx - ax, dy = by - ay;
+        double fx = ax - cx, fy = ay - cy;
+        double c = fx * fx + fy * fy - r * r;
+        if (c <= 0) return 0;                  // starts inside
+
+        double a = dx * dx + dy * dy;
+        if (a == 0) return -1;                 // not moving and not overlapping
+        double b = 2 * (fx * dx + fy * dy);
+        if (b >= 0) return -1;                 // moving away
+        double disc = b * b - 4 * a * c;
+        if (disc < 0) return -1;
+
+        double t = (-b - Math.sqrt(disc)) / (2 * a);
+        return t <= 1 ? t : -1;
+    }
+
+    /**
+     * Two moving circles over one step: circle 1 goes (ax0,ay0)->(ax1,ay1), circle 2 goes
+     * (bx0,by0)->(bx1,by1). Solved in circle 2's frame as a segment vs a circle of r1+r2.
+     * @return first contact time in [0, 1], or -1 for no hit
+     */
+    public static double circles(double ax0, double ay0, double ax1, double ay1, double r1,
+                                 double bx0, double by0, double bx1, double by1, double r2) {
+        return segmentCircle(ax0 - bx0, ay0 - by0, ax1 - bx1, ay1 - by1, 0, 0, r1 + r2);
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.invaders.rocketblasters.sim;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD {@link Kinematics} on the Vector API: full lanes in the main loop, the remainder
+ * through the scalar code. Only reference this class via {@link Kinematics#get()};
+ * it needs {@code --add-modules jdk.incubator.vector} at compile and run time.
+ */
+public final class VectorKinematics implements Kinematics {
+
+    private static final VectorSpecies<Double> S = DoubleVector.SPECIES_PREFERRED;
+    private static final int WARMUP_ROUNDS = 20_000;
+
+    /**
+     * Runs every op over data that takes every branch, so the first ticks are not interpreted.
+     * This does not make the path allocation-free: until C2 has compiled the calls away the
+     * lanes are still boxed (measured ~3 KB per tick for the first ~200k ticks), which is why
+     * {@link Kinematics#get()} only picks this class with {@code -Drb.simd=on}.
+     */
+    public VectorKinematics() {
+        int n = S.length() * 4 + 3;
+        double[] p = new double[n], v = new double[n];
+        int[] out = new int[n];
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (int i = 0; i < n; i++) {
+                p[i] = (i * 37 + round) % 120 - 10; // some below 0, some above 100
+                v[i] = (i & 1) == 0 ? 30 : -30;
+            }
+            integrate(p, v, n, 1.0 / 60.0);
+            bounce(p, v, n, 0, 100);
+            collectOutside(p, n, 5, 95, out);
+        }
+    }
+
+    @Override
+    public void integrate(double[] p, double[] v, int n, double dt) {
+        int i = 0;
+        for (int upper = S.loopBound(n); i < upper; i += S.length()) {
+            DoubleVector pv = DoubleVector.fromArray(S, p, i);
+            DoubleVector vv = DoubleVector.fromArray(S, v, i);
+            pv.add(vv.mul(dt)).intoArray(p, i); // mul then add (not fma): matches the scalar path bit for bit
+        }
+        for (; i < n; i++) p[i] += v[i] * dt;
+    }
+
+    @Override
+    public void bounce(double[] p, double[] v, int n, double lo, double hi) {
+        int i = 0;
+        for (int upper = S.loopBound(n); i < upper; i += S.length()) {
+            DoubleVector pv = DoubleVector.fromArray(S, p, i);
+            VectorMask<Double> below = pv.compare(VectorOperators.LT, lo);
+            VectorMask<Double> above = pv.blend(lo, below).compare(VectorOperators.GT, hi);
+            // branch-free on purpose: a rarely taken vector branch deopts and then boxes every lane
+            DoubleVector vv = DoubleVector.fromArray(S, v, i);
+            vv = vv.blend(vv.abs(), below);
+            vv = vv.blend(vv.abs().neg(), above);
+            pv.blend(lo, below).blend(hi, above).intoArray(p, i);
+            vv.intoArray(v, i);
+        }
+        if (i < n) bounceTail(p, v, i, n, lo, hi);
+    }
+
+    @Override
+    public int collectOutside(double[] p, int n, double lo, double hi, int[] out) {
+        int count = 0, i = 0;
+        for (int upper = S.loopBound(n); i < upper; i += S.length()) {
+            DoubleVector pv = DoubleVector.fromArray(S, p, i);
+            VectorMask<Double> m = pv.compare(VectorOperators.LT, lo).or(pv.compare(VectorOperators.GT, hi));
+            if (!m.anyTrue()) continue;
+            // rare: rescan just this chunk (mask.toLong() is not intrinsified everywhere and boxes)
+            for (int j = i, end = i + S.length(); j < end; j++) {
+                if (p[j] < lo || p[j] > hi) out[count++] = j;
+            }
+        }
+        for (; i < n; i++) {
+            if (p[i] < lo || p[i] > hi) out[count++] = i;
+        }
+        return count;
+    }
+
+    private static void bounceTail(double[] p, double[] v, int from, int n, double lo, double hi) {
+        for (int i = from; i < n; i++) {
+            if (p[i] < lo) { p[i] = lo; v[i] = Math.abs(v[i]); }
+            if (p[i] > hi) { p[i] = hi; v[i] = -Math.abs(v[i]); }
+        }
+    }
+
+    @Override
+    public String name() { return "vector(" + S.length() + "x double)"; }
+}
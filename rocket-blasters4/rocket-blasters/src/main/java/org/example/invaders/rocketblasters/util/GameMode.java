@@ -3,5 +3,6 @@ package org.example.invaders.rocketblasters.util;
 public enum GameMode {
     SINGLE_PLAYER,        // endless single player
     MULTIPLAYER_RANKED,   // single player with shared leaderboard
-    HEAD_TO_HEAD          // realtime PvP via sockets
+    HEAD_TO_HEAD,         // realtime PvP via sockets
+    STRESS                // bullet-hell benchmark (see sim.StressConfig); never ends, prints perf
 }
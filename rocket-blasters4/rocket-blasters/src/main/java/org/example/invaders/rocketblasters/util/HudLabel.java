@@ -0,0 +1,49 @@
+package org.example.invaders.rocketblasters.util;
+
+import javafx.scene.control.Label;
+
+import java.util.function.IntFunction;
+
+/**
+ * One HUD value shown in a Label, written only when it changes.
+ * - {@link #set} just records the value (cheap enough to call every tick);
+ * - {@link #flush} builds the text and calls {@code setText} at most once, and only if the
+ *   value differs from what is on screen. Call it once per pulse, so several changes in
+ *   one frame cost one CSS/layout pass.
+ * FX thread only. A null label is allowed (the FXML may not have it).
+ */
+public final class HudLabel {
+
+    private final Label label;
+    private final IntFunction<String> format;
+    private int value;
+    private int shown;
+    private boolean valid = false; // nothing shown yet
+
+    public HudLabel(Label label, IntFunction<String> format) {
+        this.label = label;
+        this.format = format;
+    }
+
+    /** "prefix" + value, e.g. {@code "Score: "}. */
+    public HudLabel(Label label, String prefix) {
+        this(label, v -> prefix + v);
+    }
+
+    public void set(int value) {
+        this.value = value;
+    }
+
+    /** Pushes the value to the Label if it changed since the last flush. */
+    public void flush() {
+        if (label == null || (valid && value == shown)) return;
+        label.setText(format.apply(value));
+        shown = value;
+        valid = true;
+    }
+
+    /** Forces the next {@link #flush} to write (e.g. after the Label was reset elsewhere). */
+    public void invalidate() {
+        valid = false;
+    }
+}
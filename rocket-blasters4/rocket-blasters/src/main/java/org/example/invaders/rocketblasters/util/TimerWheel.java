@@ -0,0 +1,209 @@
+package org.example.invaders.rocketblasters.util;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical timer wheel counted in simulation ticks.
+ * - {@link #schedule} and {@link #cancel} are O(1); {@link #advance} only touches timers
+ *   that are due (plus the occasional cascade of one coarser slot into the finer level).
+ * - 4 levels x 64 slots: level 0 holds the next 64 ticks, level 1 the next 64^2, ...
+ *   Anything beyond 64^4 ticks (~77 h at 60 Hz) waits in the top level and is re-filed.
+ * - Timers are (kind, arg) int pairs delivered to one {@link Listener}, and storage is
+ *   primitive arrays, so scheduling thousands of per-entity timers does not allocate
+ *   once the arrays have grown to the working set.
+ * - Handles carry a generation, so a stale handle never cancels a recycled timer.
+ * Single-threaded: use it from the thread that calls {@link #advance}.
+ */
+public final class TimerWheel {
+
+    /** Called when a timer is due; it is already removed, so the listener may reschedule it. */
+    @FunctionalInterface
+    public interface Listener {
+        void onTimer(int kind, int arg);
+    }
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long MAX_SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    private static final int NONE = -1;
+    private static final int INDEX_BITS = 20;
+    private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+    private static final int GEN_MASK = (1 << (31 - INDEX_BITS)) - 1;
+
+    private final Listener listener;
+    private final int[] head = new int[LEVELS * SLOTS]; // level * SLOTS + slot -> first timer
+
+    // ===== Timer columns (index-addressed) =====
+    private long[] deadline;
+    private int[] kind, arg;
+    private int[] next, prev;
+    private int[] bucket;   // head index while scheduled, NONE when free
+    private int[] gen;
+    private int[] free;
+    private int freeCount, used;
+
+    private long now = 0;
+    private int size = 0;
+
+    /**
+     * @param capacity timers that fit before the arrays grow
+     * @param listener receives every expired timer
+     */
+    public TimerWheel(int capacity, Listener listener) {
+        this.listener = listener;
+        Arrays.fill(head, NONE);
+        int cap = Math.max(8, capacity);
+        deadline = new long[cap];
+        kind = new int[cap]; arg = new int[cap];
+        next = new int[cap]; prev = new int[cap];
+        bucket = new int[cap];
+        gen = new int[cap];
+        free = new int[cap];
+    }
+
+    /** Current tick (number of {@link #advance} calls since the last clear). */
+    public long now() { return now; }
+
+    /** Number of pending timers. */
+    public int size() { return size; }
+
+    /**
+     * Fires {@code kind, arg} after {@code delayTicks} more calls to {@link #advance}
+     * (at least one).
+     * @return handle for {@link #cancel} / {@link #isPending} / {@link #remaining}
+     */
+    public int schedule(long delayTicks, int kind, int arg) {
+        int id;
+        if (freeCount > 0) {
+            id = free[--freeCount];
+        } else {
+            if (used == deadline.length) grow();
+            id = used++;
+        }
+        this.deadline[id] = now + Math.max(1, delayTicks);
+        this.kind[id] = kind;
+        this.arg[id] = arg;
+        file(id);
+        size++;
+        return (gen[id] << INDEX_BITS) | id;
+    }
+
+    /** @return true if the timer was still pending and is now cancelled */
+    public boolean cancel(int handle) {
+        int id = live(handle);
+        if (id < 0) return false;
+        unlink(id);
+        release(id);
+        return true;
+    }
+
+    public boolean isPending(int handle) {
+        return live(handle) >= 0;
+    }
+
+    /** @return ticks until the timer fires, or 0 if it is no longer pending */
+    public long remaining(int handle) {
+        int id = live(handle);
+        return id < 0 ? 0 : deadline[id] - now;
+    }
+
+    /** Moves time on by one tick and fires everything that is now due. */
+    public void advance() {
+        now++;
+        // when a level wraps, pour the matching slot of the next level down (coarsest first)
+        if ((now & SLOT_MASK) == 0) cascade(1);
+
+        int b = (int) (now & SLOT_MASK);
+        for (int id = head[b]; id != NONE; id = head[b]) {
+            int k = kind[id], a = arg[id];
+            unlink(id);
+            release(id);
+            listener.onTimer(k, a);
+        }
+    }
+
+    /** Drops every pending timer and restarts the clock at 0 (outstanding handles go stale). */
+    public void clear() {
+        for (int i = 0; i < head.length; i++) {
+            for (int id = head[i]; id != NONE; ) {
+                int n = next[id];
+                release(id);
+                id = n;
+            }
+            head[i] = NONE;
+        }
+        now = 0;
+    }
+
+    /** Converts a duration to whole ticks of length {@code dt} (at least one). */
+    public static long ticks(double seconds, double dt) {
+        return Math.max(1, Math.round(seconds / dt));
+    }
+
+    // ===== internals =====
+
+    private void cascade(int level) {
+        if (level >= LEVELS) return;
+        int slot = (int) ((now >>> (SLOT_BITS * level)) & SLOT_MASK);
+        if (slot == 0) cascade(level + 1);
+
+        int b = level * SLOTS + slot;
+        int id = head[b];
+        head[b] = NONE;
+        while (id != NONE) {
+            int n = next[id];
+            file(id);
+            id = n;
+        }
+    }
+
+    /** Puts a timer into the slot matching its distance from now. */
+    private void file(int id) {
+        long delta = deadline[id] - now;
+        long t = delta < MAX_SPAN ? deadline[id] : now + MAX_SPAN - 1; // too far: park at the top
+        if (delta >= MAX_SPAN) delta = MAX_SPAN - 1;
+
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) level++;
+        int b = level * SLOTS + (int) ((t >>> (SLOT_BITS * level)) & SLOT_MASK);
+
+        int h = head[b];
+        next[id] = h;
+        prev[id] = NONE;
+        if (h != NONE) prev[h] = id;
+        head[b] = id;
+        bucket[id] = b;
+    }
+
+    private void unlink(int id) {
+        int p = prev[id], n = next[id];
+        if (p != NONE) next[p] = n; else head[bucket[id]] = n;
+        if (n != NONE) prev[n] = p;
+    }
+
+    private void release(int id) {
+        bucket[id] = NONE;
+        gen[id] = (gen[id] + 1) & GEN_MASK;
+        free[freeCount++] = id;
+        size--;
+    }
+
+    private int live(int handle) {
+        int id = handle & INDEX_MASK;
+        if (handle < 0 || id >= used || bucket[id] == NONE || gen[id] != (handle >>> INDEX_BITS)) return -1;
+        return id;
+    }
+
+    private void grow() {
+        int cap = deadline.length * 2;
+        deadline = Arrays.copyOf(deadline, cap);
+        kind = Arrays.copyOf(kind, cap); arg = Arrays.copyOf(arg, cap);
+        next = Arrays.copyOf(next, cap); prev = Arrays.copyOf(prev, cap);
+        bucket = Arrays.copyOf(bucket, cap);
+        gen = Arrays.copyOf(gen, cap);
+        free = Arrays.copyOf(free, cap);
+    }
+}
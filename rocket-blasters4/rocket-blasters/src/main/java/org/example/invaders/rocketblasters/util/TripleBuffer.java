@@ -0,0 +1,44 @@
+package org.example.invaders.rocketblasters.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free triple buffer for handing whole states from one producer thread to one
+ * consumer thread.
+ * - The producer fills {@link #back()} and calls {@link #publish()}.
+ * - The consumer calls {@link #acquire()} and gets the newest published state.
+ * - Neither side ever waits, and neither side ever sees a half-written state.
+ */
+public final class TripleBuffer<T> {
+
+    private static final int FRESH = 4;    // set on the middle index when it holds an unread state
+
+    private final T[] slots;
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;                  // producer-owned
+    private int front = 2;                 // consumer-owned
+
+    @SuppressWarnings("unchecked")
+    public TripleBuffer(Supplier<T> factory) {
+        slots = (T[]) new Object[]{factory.get(), factory.get(), factory.get()};
+    }
+
+    /** Producer: the slot to write the next state into. */
+    public T back() {
+        return slots[back];
+    }
+
+    /** Producer: makes the back slot the newest state and takes a free slot as the new back. */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & 3;
+    }
+
+    /** Consumer: the newest published state (the same one as last time if nothing new arrived). */
+    public T acquire() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & 3;
+        }
+        return slots[front];
+    }
+}